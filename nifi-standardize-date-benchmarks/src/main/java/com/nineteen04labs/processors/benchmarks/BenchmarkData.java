@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.nineteen04labs.processors.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.avro.Schema;
+import org.apache.avro.file.CodecFactory;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.codehaus.jackson.node.NullNode;
+
+/**
+ * Generates JSON and Avro FlowFile content with a configurable number of
+ * records, date fields and share of null dates.
+ */
+public class BenchmarkData {
+
+    public static final String DATE_FORMAT = "MM/dd/yy";
+    public static final String TIMEZONE = "America/Chicago";
+
+    private static final String[] FILLER_FIELDS = {"status", "first_name", "last_name", "title", "entity", "position", "id"};
+
+    private final int recordCount;
+    private final int dateFields;
+    private final double nullRatio;
+    private final Random random = new Random(1904);
+
+    public BenchmarkData(int recordCount, int dateFields, double nullRatio) {
+        this.recordCount = recordCount;
+        this.dateFields = dateFields;
+        this.nullRatio = nullRatio;
+    }
+
+    public String invalidDates() {
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < dateFields; i++) {
+            if (i > 0)
+                sb.append(',');
+            sb.append("\"date_").append(i).append("\":\"").append(DATE_FORMAT).append('"');
+        }
+        return sb.append('}').toString();
+    }
+
+    public Schema schema() {
+        List<Schema> nullableString = new ArrayList<>();
+        nullableString.add(Schema.create(Schema.Type.NULL));
+        nullableString.add(Schema.create(Schema.Type.STRING));
+
+        List<Schema.Field> fields = new ArrayList<>();
+        for (String name : FILLER_FIELDS)
+            fields.add(new Schema.Field(name, Schema.create(Schema.Type.STRING), null, (Object) null));
+        for (int i = 0; i < dateFields; i++)
+            fields.add(new Schema.Field("date_" + i, Schema.createUnion(nullableString), null, NullNode.getInstance()));
+
+        Schema schema = Schema.createRecord("benchmark", null, null, false);
+        schema.setFields(fields);
+        return schema;
+    }
+
+    public String randomDate() {
+        if (random.nextDouble() < nullRatio)
+            return null;
+        return String.format("%02d/%02d/%02d", 1 + random.nextInt(12), 1 + random.nextInt(28), random.nextInt(100));
+    }
+
+    public byte[] json() {
+        StringBuilder sb = new StringBuilder();
+        for (int r = 0; r < recordCount; r++) {
+            sb.append('{');
+            for (String name : FILLER_FIELDS)
+                sb.append('"').append(name).append("\":\"").append(name).append('_').append(r).append("\",");
+            for (int i = 0; i < dateFields; i++) {
+                String date = randomDate();
+                sb.append("\"date_").append(i).append("\":");
+                if (date == null)
+                    sb.append("null");
+                else
+                    sb.append('"').append(date).append('"');
+                sb.append(',');
+            }
+            sb.setLength(sb.length() - 1);
+            sb.append("}\n");
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    public byte[] avro() throws IOException {
+        Schema schema = schema();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<GenericRecord>(schema))) {
+            writer.setCodec(CodecFactory.snappyCodec());
+            writer.create(schema, out);
+            for (int r = 0; r < recordCount; r++) {
+                GenericRecord record = new GenericData.Record(schema);
+                for (String name : FILLER_FIELDS)
+                    record.put(name, name + "_" + r);
+                for (int i = 0; i < dateFields; i++)
+                    record.put("date_" + i, randomDate());
+                writer.append(record);
+            }
+        }
+        return out.toByteArray();
+    }
+}
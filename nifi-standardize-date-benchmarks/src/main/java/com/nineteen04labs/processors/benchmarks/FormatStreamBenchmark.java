@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.nineteen04labs.processors.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import com.nineteen04labs.processors.util.FormatStream;
+
+import org.apache.avro.Schema;
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatStreamBenchmark {
+
+    @Param({"1", "1000"})
+    public int recordCount;
+
+    @Param({"1", "4"})
+    public int dateFields;
+
+    @Param({"0.0", "0.5"})
+    public double nullRatio;
+
+    private Schema schema;
+    private byte[] avro;
+    private byte[] json;
+
+    @Setup
+    public void setup() throws IOException {
+        BenchmarkData data = new BenchmarkData(recordCount, dateFields, nullRatio);
+        schema = data.schema();
+        avro = data.avro();
+        json = avroToJson();
+    }
+
+    @Benchmark
+    public byte[] avroToJson() throws IOException {
+        try (InputStream in = FormatStream.avroToJson(new ByteArrayInputStream(avro), schema)) {
+            return IOUtils.toByteArray(in);
+        }
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream jsonToAvro() throws IOException {
+        ByteArrayOutputStream jsonStream = new ByteArrayOutputStream(json.length);
+        jsonStream.write(json);
+        return FormatStream.jsonToAvro(jsonStream, schema);
+    }
+}
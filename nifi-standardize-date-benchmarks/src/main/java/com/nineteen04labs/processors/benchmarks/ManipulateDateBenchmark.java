@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.nineteen04labs.processors.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import com.nineteen04labs.processors.util.DateConverter;
+import com.nineteen04labs.processors.util.ManipulateDate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ManipulateDateBenchmark {
+
+    @Param({"MM/dd/yy", "yyyy-MM-dd", "MM/dd/yyyy HH:mm:ss"})
+    public String format;
+
+    private String[] values;
+    private DateConverter converter;
+    private int next;
+
+    @Setup
+    public void setup() {
+        values = new String[1024];
+        for (int i = 0; i < values.length; i++) {
+            int month = 1 + i % 12;
+            int day = 1 + i % 28;
+            int year = 1990 + i % 30;
+            switch (format) {
+                case "MM/dd/yy":
+                    values[i] = String.format("%02d/%02d/%02d", month, day, year % 100);
+                    break;
+                case "yyyy-MM-dd":
+                    values[i] = String.format("%04d-%02d-%02d", year, month, day);
+                    break;
+                default:
+                    values[i] = String.format("%02d/%02d/%04d %02d:%02d:%02d", month, day, year, i % 24, i % 60, (i * 7) % 60);
+            }
+        }
+        converter = ManipulateDate.getConverter(format, BenchmarkData.TIMEZONE);
+    }
+
+    @Benchmark
+    public String standardize() {
+        return ManipulateDate.standardize(nextValue(), format, BenchmarkData.TIMEZONE);
+    }
+
+    @Benchmark
+    public String compiledConverter() {
+        return converter.standardize(nextValue());
+    }
+
+    private String nextValue() {
+        next = (next + 1) & (values.length - 1);
+        return values[next];
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.nineteen04labs.processors.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import com.nineteen04labs.processors.standardizedate.StandardizeDate;
+import com.nineteen04labs.processors.standardizedate.StandardizeDateProperties;
+import com.nineteen04labs.processors.standardizedate.StandardizeDateRelationships;
+
+import org.apache.nifi.util.TestRunner;
+import org.apache.nifi.util.TestRunners;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Runs one FlowFile through the full StandardizeDate processor per invocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StandardizeDateBenchmark {
+
+    @Param({"JSON", "AVRO"})
+    public String flowFormat;
+
+    @Param({"1", "1000"})
+    public int recordCount;
+
+    @Param({"1", "4"})
+    public int dateFields;
+
+    @Param({"0.0", "0.5"})
+    public double nullRatio;
+
+    private TestRunner runner;
+    private byte[] content;
+
+    @Setup
+    public void setup() throws IOException {
+        BenchmarkData data = new BenchmarkData(recordCount, dateFields, nullRatio);
+        content = flowFormat.equals("AVRO") ? data.avro() : data.json();
+
+        runner = TestRunners.newTestRunner(new StandardizeDate());
+        runner.setProperty(StandardizeDateProperties.FLOW_FORMAT, flowFormat);
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, data.invalidDates());
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, BenchmarkData.TIMEZONE);
+        runner.setProperty(StandardizeDateProperties.BATCH_SIZE, "1");
+
+        runner.enqueue(content);
+        runner.run(1, false, true);
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_SUCCESS, 1);
+        runner.clearTransferState();
+    }
+
+    @Benchmark
+    public void standardize() {
+        runner.enqueue(content);
+        runner.run(1, false, false);
+        runner.clearTransferState();
+        runner.clearProvenanceEvents();
+    }
+}
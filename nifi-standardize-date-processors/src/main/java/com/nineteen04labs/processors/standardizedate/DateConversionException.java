@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.nineteen04labs.processors.standardizedate;
+
+import org.apache.nifi.processor.exception.ProcessException;
+
+/**
+ * Thrown when a date value can't be converted with its configured format.
+ */
+public class DateConversionException extends ProcessException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String field;
+    private final String value;
+    private final String format;
+
+    public DateConversionException(String field, String value, String format, String timezone, Throwable cause) {
+        super("Couldn't convert '" + value + "' in field '" + field + "' with format '" + format + "' with timezone '" + timezone + "'", cause);
+        this.field = field;
+        this.value = value;
+        this.format = format;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.nineteen04labs.processors.standardizedate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.nineteen04labs.processors.util.DateConverter;
+
+import org.apache.nifi.processor.exception.ProcessException;
+
+/**
+ * The Invalid Dates keys compiled into a trie of field paths. A path is a
+ * dot-separated list of field names, where a name followed by [] steps into
+ * the elements of an array, such as location.updated_at or events[].ts. A
+ * plain field name is a path of one field. Names match case-insensitively.
+ */
+public final class DatePaths {
+
+    private DatePaths() {
+    }
+
+    /** Whether an Invalid Dates key is a nested path rather than a plain field name. */
+    static boolean isNested(String key) {
+        return key.indexOf('.') >= 0 || key.contains("[]");
+    }
+
+    /**
+     * Compiles the keys of converters into a trie.
+     *
+     * @throws ProcessException if a key isn't a valid path, or a date field is also a prefix of another path
+     */
+    static Node compile(Map<String, DateConverter> converters) {
+        Node root = new Node();
+        for (Map.Entry<String, DateConverter> entry : converters.entrySet()) {
+            String path = entry.getKey();
+            String[] segments = path.split("\\.", -1);
+            Node node = root;
+            for (int i = 0; i < segments.length; i++) {
+                String segment = segments[i];
+                boolean array = segment.endsWith("[]");
+                String name = array ? segment.substring(0, segment.length() - 2) : segment;
+                if (name.isEmpty() || name.contains("[") || name.contains("]"))
+                    throw new ProcessException("Invalid field path '" + path + "'");
+                if (array && i == segments.length - 1)
+                    throw new ProcessException("Field path '" + path + "' must end with a field name");
+                node = node.building.computeIfAbsent(name, n -> new Node());
+                if (array) {
+                    if (node.elements == null)
+                        node.elements = new Node();
+                    node = node.elements;
+                }
+            }
+            String name = segments[segments.length - 1];
+            node.match = new InvalidDates.Match(path, name + "_standardized", entry.getValue());
+        }
+        root.freeze();
+        return root;
+    }
+
+    /** A node whose elements are node, for a root that is an array of records. */
+    static Node arrayOf(Node node) {
+        Node array = new Node();
+        array.names = new String[0];
+        array.children = new Node[0];
+        array.building = null;
+        array.elements = node;
+        return array;
+    }
+
+    /**
+     * A field in the trie: a date field, an object whose fields are in turn
+     * looked up here, or an array whose elements are.
+     */
+    public static final class Node {
+
+        private Map<String, Node> building = new LinkedHashMap<>();
+        private String[] names;
+        private Node[] children;
+        private Node elements;
+        private InvalidDates.Match match;
+
+        private Node() {
+        }
+
+        private void freeze() {
+            names = building.keySet().toArray(new String[0]);
+            children = building.values().toArray(new Node[0]);
+            building = null;
+            if (match != null && (children.length > 0 || elements != null))
+                throw new ProcessException("Field '" + match.getField() + "' can't be both a date and contain other date fields");
+            for (int i = 0; i < names.length; i++)
+                children[i].freeze();
+            if (elements != null)
+                elements.freeze();
+        }
+
+        /** The child named name, or null if no configured path goes through it. */
+        public Node child(String name) {
+            for (int i = 0; i < names.length; i++)
+                if (names[i].equals(name))
+                    return children[i];
+            for (int i = 0; i < names.length; i++)
+                if (names[i].equalsIgnoreCase(name))
+                    return children[i];
+            return null;
+        }
+
+        public boolean hasChildren() {
+            return children.length > 0;
+        }
+
+        /** The node for the elements of this array, or null if no configured path steps into them. */
+        public Node getElements() {
+            return elements;
+        }
+
+        /** The match if this is a date field, otherwise null. */
+        public InvalidDates.Match getMatch() {
+            return match;
+        }
+    }
+}
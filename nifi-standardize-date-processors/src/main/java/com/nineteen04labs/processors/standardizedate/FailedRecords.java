@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.nineteen04labs.processors.standardizedate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.nifi.flowfile.FlowFile;
+import org.apache.nifi.processor.ProcessSession;
+
+/**
+ * Records that failed to standardize under the RECORD failure policy, held in
+ * memory in the FlowFile's own format until they are routed to failure as a
+ * child of the original FlowFile. Bad records are expected to be rare.
+ */
+public class FailedRecords {
+
+    private final ByteArrayOutputStream content = new ByteArrayOutputStream();
+    private int count;
+    private DateConversionException first;
+
+    /** The stream failed records are written to. */
+    public OutputStream getOutputStream() {
+        return content;
+    }
+
+    public void failed(DateConversionException e) {
+        if (first == null)
+            first = e;
+        count++;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /** Appends the failed records of a parallel chunk, which must be in the same format. */
+    public synchronized void merge(FailedRecords other) {
+        if (other.isEmpty())
+            return;
+        if (first == null)
+            first = other.first;
+        count += other.count;
+        content.write(other.content.toByteArray(), 0, other.content.size());
+    }
+
+    /**
+     * Creates the failure FlowFile, annotated with the count of failed
+     * records and the field, value and format of the first failure.
+     */
+    public FlowFile toFlowFile(ProcessSession session, FlowFile parent) {
+        FlowFile flowFile = session.create(parent);
+        flowFile = session.write(flowFile, out -> content.writeTo(out));
+
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("standardize.failure.count", String.valueOf(count));
+        attributes.put("standardize.failure.field", first.getField());
+        attributes.put("standardize.failure.value", first.getValue());
+        attributes.put("standardize.failure.format", first.getFormat());
+        return session.putAllAttributes(flowFile, attributes);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.nineteen04labs.processors.standardizedate;
+
+import java.util.Arrays;
+
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Follows where a JSON token stream is in the Invalid Dates paths, so that
+ * fields match by their full path and values with no configured path below
+ * them can be passed over whole. Without nested paths, fields match by name
+ * at any depth. Not thread-safe.
+ */
+class FieldPathTracker {
+
+    private final DatePaths.Node root;
+    private final DatePaths.Node rootArray;
+    private final InvalidDates.FieldMatcher matcher;
+
+    private DatePaths.Node[] nodes = new DatePaths.Node[16];
+    private boolean[] arrays = new boolean[16];
+    private int depth;
+    private DatePaths.Node pending;
+
+    /** Tracks root's paths, or matches with matcher if root is null. */
+    FieldPathTracker(DatePaths.Node root, InvalidDates.FieldMatcher matcher) {
+        this.root = root;
+        this.rootArray = root == null ? null : DatePaths.arrayOf(root);
+        this.matcher = matcher;
+    }
+
+    /** The match for a field of the current object, or null if it isn't a configured date field. */
+    InvalidDates.Match field(String name) {
+        if (root == null)
+            return matcher.match(name);
+        pending = depth == 0 || arrays[depth - 1] || nodes[depth - 1] == null ? null : nodes[depth - 1].child(name);
+        InvalidDates.Match match = pending == null ? null : pending.getMatch();
+        return match == null ? null : match.named(name);
+    }
+
+    /** Whether the value of the field just matched has no configured path in it. */
+    boolean canSkip() {
+        return root != null && pending == null;
+    }
+
+    /** Steps into or out of an object or array. */
+    void follow(JsonToken token) {
+        if (root == null || token == null)
+            return;
+        if (token.isStructEnd()) {
+            depth--;
+        } else if (token.isStructStart()) {
+            DatePaths.Node node;
+            if (depth == 0)
+                node = token == JsonToken.START_ARRAY ? rootArray : root;
+            else if (arrays[depth - 1])
+                node = nodes[depth - 1] == null ? null : nodes[depth - 1].getElements();
+            else
+                node = pending;
+            if (depth == nodes.length) {
+                nodes = Arrays.copyOf(nodes, depth * 2);
+                arrays = Arrays.copyOf(arrays, depth * 2);
+            }
+            nodes[depth] = node;
+            arrays[depth] = token == JsonToken.START_ARRAY;
+            depth++;
+            pending = null;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.nineteen04labs.processors.standardizedate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nineteen04labs.processors.util.BoundedCache;
+import com.nineteen04labs.processors.util.DateConverter;
+import com.nineteen04labs.processors.util.ManipulateDate;
+
+import org.apache.commons.collections4.map.CaseInsensitiveMap;
+import org.apache.nifi.processor.exception.ProcessException;
+
+/**
+ * Compiled form of the Invalid Dates property: an immutable, case-insensitive
+ * lookup from field name or path to the converter for that field's format and
+ * the configured timezone. The keys are also kept as configured, for names
+ * that are looked up case-sensitively, such as attributes.
+ */
+public class InvalidDates {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final int TIMEZONE_CACHE_SIZE = 256;
+
+    private final String invalidDatesString;
+    private final String timezone;
+    private final Map<String, DateConverter> converters;
+    private final Map<String, DateConverter> configured;
+    private final boolean attributes;
+    private final DatePaths.Node paths;
+    private final boolean nested;
+    private final BoundedCache<String, InvalidDates> byTimezone = new BoundedCache<>(TIMEZONE_CACHE_SIZE);
+
+    private InvalidDates(String invalidDatesString, String timezone, Map<String, DateConverter> converters,
+            Map<String, DateConverter> configured, boolean attributes) {
+        this.invalidDatesString = invalidDatesString;
+        this.timezone = timezone;
+        this.converters = converters;
+        this.configured = configured;
+        this.attributes = attributes;
+        this.paths = attributes ? null : DatePaths.compile(configured);
+        this.nested = !attributes && configured.keySet().stream().anyMatch(DatePaths::isNested);
+    }
+
+    public static InvalidDates compile(String invalidDatesString, String timezone) {
+        return compile(invalidDatesString, timezone, false);
+    }
+
+    /**
+     * Compiles the Invalid Dates as flat attribute names, which may contain
+     * dots and brackets, so no paths are compiled from them.
+     */
+    public static InvalidDates compileAttributes(String invalidDatesString, String timezone) {
+        return compile(invalidDatesString, timezone, true);
+    }
+
+    private static InvalidDates compile(String invalidDatesString, String timezone, boolean attributes) {
+        Map<String, Object> formats;
+        try {
+            formats = objectMapper.readValue(invalidDatesString, new TypeReference<LinkedHashMap<String, Object>>(){});
+        } catch (IOException e) {
+            throw new ProcessException("Couldn't parse Invalid Dates '" + invalidDatesString + "'", e);
+        }
+
+        Map<String, DateConverter> converters = new CaseInsensitiveMap<>();
+        Map<String, DateConverter> configured = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : formats.entrySet()) {
+            List<String> fieldFormats = toFormats(entry.getKey(), entry.getValue());
+            DateConverter converter;
+            try {
+                converter = ManipulateDate.getConverter(fieldFormats, timezone);
+            } catch (RuntimeException e) {
+                throw new ProcessException("Couldn't compile format '" + String.join(" | ", fieldFormats) + "' with timezone '" + timezone + "'", e);
+            }
+            // As in the case-insensitive lookup, the last of keys differing only in case wins
+            if (converters.put(entry.getKey(), converter) != null)
+                configured.keySet().removeIf(entry.getKey()::equalsIgnoreCase);
+            configured.put(entry.getKey(), converter);
+        }
+
+        return new InvalidDates(invalidDatesString, timezone, Collections.unmodifiableMap(converters), Collections.unmodifiableMap(configured),
+            attributes);
+    }
+
+    /** A field's format is either a string or an array of strings, tried in order. */
+    private static List<String> toFormats(String fieldName, Object value) {
+        if (value instanceof String)
+            return Collections.singletonList((String) value);
+
+        if (value instanceof List && !((List<?>) value).isEmpty()) {
+            List<String> formats = new ArrayList<>();
+            for (Object format : (List<?>) value) {
+                if (!(format instanceof String))
+                    throw new ProcessException("Formats for field '" + fieldName + "' must be strings");
+                formats.add((String) format);
+            }
+            return formats;
+        }
+
+        throw new ProcessException("Format for field '" + fieldName + "' must be a string or a non-empty array of strings");
+    }
+
+    public boolean contains(String fieldName) {
+        return converters.containsKey(fieldName);
+    }
+
+    public DateConverter get(String fieldName) {
+        return converters.get(fieldName);
+    }
+
+    /** The keys as configured, in order. */
+    public Set<String> fieldNames() {
+        return configured.keySet();
+    }
+
+    public String getTimezone() {
+        return timezone;
+    }
+
+    /**
+     * The same Invalid Dates compiled for another timezone, cached by
+     * timezone.
+     *
+     * @throws ProcessException if the timezone is unknown
+     */
+    public InvalidDates forTimezone(String otherTimezone) {
+        if (otherTimezone.equals(timezone))
+            return this;
+        return byTimezone.get(otherTimezone, tz -> compile(invalidDatesString, tz, attributes));
+    }
+
+    /** The configured fields as a trie of paths from the record root, or null if compiled as attributes. */
+    public DatePaths.Node getPaths() {
+        return paths;
+    }
+
+    /**
+     * Whether any key is a nested path, in which case every key matches by its
+     * path from the record root rather than by name at any depth.
+     */
+    public boolean isNested() {
+        return nested;
+    }
+
+    /** A new tracker for one JSON parse; trackers are not thread-safe. */
+    FieldPathTracker tracker() {
+        return nested ? new FieldPathTracker(paths, null) : new FieldPathTracker(null, matcher());
+    }
+
+    /** A new matcher for one parse; matchers are not thread-safe. */
+    public FieldMatcher matcher() {
+        return new FieldMatcher(converters);
+    }
+
+    /**
+     * Matches field names by identity first, relying on the JSON parser
+     * canonicalizing them, so that the case-insensitive lookup happens once
+     * per distinct name rather than once per field.
+     */
+    public static final class FieldMatcher {
+
+        private static final int MAX_NAMES = 4096;
+        private static final Match NO_MATCH = new Match(null, null, null);
+
+        private final Map<String, DateConverter> converters;
+        private final Map<String, Match> seen = new IdentityHashMap<>();
+
+        private FieldMatcher(Map<String, DateConverter> converters) {
+            this.converters = converters;
+        }
+
+        /** The match for a field name, or null if it isn't a configured date field. */
+        public Match match(String fieldName) {
+            Match match = seen.get(fieldName);
+            if (match == null) {
+                DateConverter converter = converters.get(fieldName);
+                match = converter == null ? NO_MATCH : new Match(fieldName, fieldName + "_standardized", converter);
+                if (seen.size() < MAX_NAMES)
+                    seen.put(fieldName, match);
+            }
+            return match == NO_MATCH ? null : match;
+        }
+    }
+
+    public static final class Match {
+
+        private static final String STANDARDIZED_SUFFIX = "_standardized";
+
+        private final String field;
+        private final String standardizedName;
+        private final DateConverter converter;
+
+        Match(String field, String standardizedName, DateConverter converter) {
+            this.field = field;
+            this.standardizedName = standardizedName;
+            this.converter = converter;
+        }
+
+        /** The Invalid Dates key this matched, to look up the field's converter by. */
+        public String getField() {
+            return field;
+        }
+
+        public String getStandardizedName() {
+            return standardizedName;
+        }
+
+        /**
+         * This match for a field named name, which may differ in case from
+         * the configured one, so that the standardized field follows the
+         * field's own name.
+         */
+        Match named(String name) {
+            if (standardizedName.length() == name.length() + STANDARDIZED_SUFFIX.length() && standardizedName.startsWith(name))
+                return this;
+            return new Match(field, name + STANDARDIZED_SUFFIX, converter);
+        }
+
+        public DateConverter getConverter() {
+            return converter;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof InvalidDates))
+            return false;
+        InvalidDates other = (InvalidDates) o;
+        return invalidDatesString.equals(other.invalidDatesString) && Objects.equals(timezone, other.timezone)
+            && attributes == other.attributes;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(invalidDatesString, timezone, attributes);
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.nineteen04labs.processors.standardizedate;
+
+import com.nineteen04labs.processors.util.DateConverter;
+
+/**
+ * The timezone of the record being standardized: the value of its Timezone
+ * Field if it has one, otherwise the Timezone property. Converters for a
+ * record's timezone are looked up once per record. Not thread-safe.
+ */
+class RecordTimezone {
+
+    private final InvalidDates invalidDates;
+    private String timezone;
+    private InvalidDates resolved;
+
+    RecordTimezone(InvalidDates invalidDates) {
+        this.invalidDates = invalidDates;
+    }
+
+    /** Starts a record whose Timezone Field holds timezone, or null if it has none. */
+    void set(Object timezone) {
+        this.timezone = timezone == null || timezone.toString().isEmpty() ? null : timezone.toString();
+        this.resolved = null;
+    }
+
+    String getTimezone() {
+        return timezone == null ? invalidDates.getTimezone() : timezone;
+    }
+
+    /**
+     * The converter for a field in the current record, which is
+     * defaultConverter unless the record has its own timezone.
+     *
+     * @throws org.apache.nifi.processor.exception.ProcessException if the record's timezone is unknown
+     */
+    DateConverter converter(String field, DateConverter defaultConverter) {
+        if (timezone == null)
+            return defaultConverter;
+        if (resolved == null)
+            resolved = invalidDates.forTimezone(timezone);
+        return resolved.get(field);
+    }
+}
@@ -16,59 +16,110 @@
  */
 package com.nineteen04labs.processors.standardizedate;
 
-import java.io.BufferedReader;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.OutputStream;
-import java.io.Reader;
+import java.nio.CharBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nineteen04labs.processors.util.BoundedCache;
+import com.nineteen04labs.processors.util.ConversionMemo;
+import com.nineteen04labs.processors.util.ConversionMetrics;
+import com.nineteen04labs.processors.util.DateConverter;
 import com.nineteen04labs.processors.util.FormatStream;
-import com.nineteen04labs.processors.util.ManipulateDate;
+import com.nineteen04labs.processors.util.OutputFormat;
+import com.nineteen04labs.processors.util.ParallelChunks;
 
+import org.apache.avro.AvroRuntimeException;
 import org.apache.avro.Schema;
-import org.apache.avro.Schema.Type;
-import org.apache.commons.collections4.map.CaseInsensitiveMap;
+import org.apache.avro.file.CodecFactory;
+import org.apache.avro.file.DataFileConstants;
+import org.apache.avro.file.DataFileStream;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.util.Utf8;
+import org.apache.nifi.annotation.behavior.SupportsBatching;
+import org.apache.nifi.annotation.behavior.WritesAttribute;
+import org.apache.nifi.annotation.behavior.WritesAttributes;
 import org.apache.nifi.annotation.documentation.CapabilityDescription;
 import org.apache.nifi.annotation.documentation.Tags;
+import org.apache.nifi.annotation.lifecycle.OnScheduled;
+import org.apache.nifi.annotation.lifecycle.OnStopped;
 import org.apache.nifi.components.PropertyDescriptor;
+import org.apache.nifi.components.PropertyValue;
 import org.apache.nifi.flowfile.FlowFile;
 import org.apache.nifi.processor.AbstractProcessor;
+import org.apache.nifi.processor.DataUnit;
 import org.apache.nifi.processor.ProcessContext;
 import org.apache.nifi.processor.ProcessSession;
 import org.apache.nifi.processor.ProcessorInitializationContext;
 import org.apache.nifi.processor.Relationship;
 import org.apache.nifi.processor.exception.ProcessException;
+import org.apache.nifi.processor.io.InputStreamCallback;
 import org.apache.nifi.processor.io.StreamCallback;
-import org.codehaus.jackson.node.NullNode;
 
+@SupportsBatching
+@WritesAttributes({
+    @WritesAttribute(attribute = "standardize.record.count", description = "The number of records standardized"),
+    @WritesAttribute(attribute = "standardize.millis", description = "The time taken to standardize the FlowFile, in milliseconds"),
+    @WritesAttribute(attribute = "<attribute>_standardized", description = "With the ATTRIBUTES FlowFile Format, the standardized value of each "
+        + "attribute named in the Invalid Dates, unless the Output Placement is REPLACE")
+})
 @Tags({"date", "time", "datetime", "standardize", "standardization"})
 @CapabilityDescription("NiFi processor to standardize date fields in a FlowFile.")
 public class StandardizeDate extends AbstractProcessor {
 
+    private static final int SCHEMA_CACHE_SIZE = 64;
+    private static final int INVALID_DATES_CACHE_SIZE = 64;
+
+    private static final JsonFactory jsonFactory = new JsonFactory().setRootValueSeparator(null);
+
     private List<PropertyDescriptor> descriptors;
     private Set<Relationship> relationships;
 
+    private final BoundedCache<String, Schema> parsedSchemas = new BoundedCache<>(SCHEMA_CACHE_SIZE);
+    private final BoundedCache<List<Object>, StandardizedSchema> standardizedSchemas = new BoundedCache<>(SCHEMA_CACHE_SIZE);
+    private final BoundedCache<List<String>, InvalidDates> compiledInvalidDates = new BoundedCache<>(INVALID_DATES_CACHE_SIZE);
+
+    private volatile InvalidDates scheduledInvalidDates;
+    private volatile ConversionMemo conversionMemo;
+    private volatile ForkJoinPool chunkPool;
+
     @Override
     protected void init(final ProcessorInitializationContext context) {
         final List<PropertyDescriptor> descriptors = new ArrayList<PropertyDescriptor>();
         descriptors.add(StandardizeDateProperties.FLOW_FORMAT);
         descriptors.add(StandardizeDateProperties.AVRO_SCHEMA);
+        descriptors.add(StandardizeDateProperties.AVRO_CODEC);
+        descriptors.add(StandardizeDateProperties.COMPRESSION_LEVEL);
+        descriptors.add(StandardizeDateProperties.SYNC_INTERVAL);
         descriptors.add(StandardizeDateProperties.INVALID_DATES);
         descriptors.add(StandardizeDateProperties.TIMEZONE);
+        descriptors.add(StandardizeDateProperties.TIMEZONE_FIELD);
+        descriptors.add(StandardizeDateProperties.FAILURE_POLICY);
+        descriptors.add(StandardizeDateProperties.OUTPUT_FORMAT);
+        descriptors.add(StandardizeDateProperties.OUTPUT_PLACEMENT);
+        descriptors.add(StandardizeDateProperties.BATCH_SIZE);
+        descriptors.add(StandardizeDateProperties.CONVERSION_CACHE_SIZE);
+        descriptors.add(StandardizeDateProperties.PARALLELISM);
         this.descriptors = Collections.unmodifiableList(descriptors);
 
         final Set<Relationship> relationships = new HashSet<Relationship>();
@@ -88,114 +139,616 @@ public class StandardizeDate extends AbstractProcessor {
         return descriptors;
     }
 
+    @OnScheduled
+    public void onScheduled(final ProcessContext context) {
+        scheduledInvalidDates = null;
+        // Compiled for the FlowFile Format, which may have changed since
+        compiledInvalidDates.clear();
+
+        final int conversionCacheSize = context.getProperty(StandardizeDateProperties.CONVERSION_CACHE_SIZE).asInteger();
+        conversionMemo = conversionCacheSize > 0 ? new ConversionMemo(conversionCacheSize) : null;
+
+        final int parallelism = context.getProperty(StandardizeDateProperties.PARALLELISM).asInteger();
+        chunkPool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+
+        final PropertyValue invalidDatesProperty = context.getProperty(StandardizeDateProperties.INVALID_DATES);
+        final PropertyValue timezoneProperty = context.getProperty(StandardizeDateProperties.TIMEZONE);
+        if (invalidDatesProperty.isSet() && !invalidDatesProperty.isExpressionLanguagePresent() && !timezoneProperty.isExpressionLanguagePresent()) {
+            try {
+                scheduledInvalidDates = compileInvalidDates(context, invalidDatesProperty.evaluateAttributeExpressions().getValue(),
+                    timezoneProperty.evaluateAttributeExpressions().getValue());
+            } catch (ProcessException e) {
+                getLogger().warn("Couldn't compile Invalid Dates; FlowFiles will be routed to failure", e);
+            }
+        }
+    }
+
+    @OnStopped
+    public void onStopped() {
+        final ForkJoinPool pool = chunkPool;
+        if (pool != null) {
+            pool.shutdownNow();
+            chunkPool = null;
+        }
+
+        final ConversionMemo memo = conversionMemo;
+        if (memo != null)
+            getLogger().debug("Conversion cache hit rate {} ({} hits, {} misses, enabled: {})",
+                new Object[] {memo.getHitRate(), memo.getHitCount(), memo.getMissCount(), memo.isEnabled()});
+    }
+
+    /**
+     * Hit rate of the conversion cache since the processor was scheduled, or
+     * -1 if the cache is disabled.
+     */
+    public double getConversionCacheHitRate() {
+        final ConversionMemo memo = conversionMemo;
+        return memo == null ? -1 : memo.getHitRate();
+    }
+
     @Override
     public void onTrigger(final ProcessContext context, final ProcessSession session) throws ProcessException {
-        FlowFile flowFile = session.get();
-        if ( flowFile == null ) {
+        final List<FlowFile> flowFiles = session.get(context.getProperty(StandardizeDateProperties.BATCH_SIZE).asInteger());
+        if (flowFiles.isEmpty()) {
             return;
         }
-        try {
-            final String invalidDatesString = context.getProperty(StandardizeDateProperties.INVALID_DATES).evaluateAttributeExpressions(flowFile).getValue();
-            if ("".equals(invalidDatesString) || invalidDatesString == null) {
-                session.transfer(flowFile, StandardizeDateRelationships.REL_BYPASS);
-                return;
+
+        final String flowFormat = context.getProperty(StandardizeDateProperties.FLOW_FORMAT).getValue();
+        final StandardizeOptions options = StandardizeOptions.of(context);
+        final InvalidDates scheduled = scheduledInvalidDates;
+        List<String> previousKey = null;
+        InvalidDates previous = null;
+
+        for (FlowFile flowFile : flowFiles) {
+            final ConversionMetrics metrics = new ConversionMetrics();
+            try {
+                InvalidDates invalidDates = scheduled;
+                if (invalidDates == null) {
+                    final List<String> key = evaluateInvalidDates(context, flowFile);
+                    if (key == null) {
+                        session.transfer(flowFile, StandardizeDateRelationships.REL_BYPASS);
+                        continue;
+                    }
+                    if (!key.equals(previousKey)) {
+                        previous = compiledInvalidDates.get(key, k -> compileInvalidDates(context, k.get(0), k.get(1)));
+                        previousKey = key;
+                    }
+                    invalidDates = previous;
+                }
+
+                if (flowFormat.equals("ATTRIBUTES")) {
+                    final long start = System.nanoTime();
+                    flowFile = standardizeAttributes(session, flowFile, invalidDates, options, metrics);
+                    flowFile = putMetricAttributes(session, flowFile, metrics, start);
+                    adjustCounters(session, metrics);
+                    session.transfer(flowFile, StandardizeDateRelationships.REL_SUCCESS);
+                    continue;
+                }
+
+                if (!containsDateFields(context, session, flowFile, flowFormat, invalidDates)) {
+                    session.adjustCounter("FlowFiles Passed Through", 1, false);
+                    session.transfer(flowFile, StandardizeDateRelationships.REL_SUCCESS);
+                    continue;
+                }
+
+                final long start = System.nanoTime();
+                final FailedRecords failed = options.isRouteFailedRecords() ? new FailedRecords() : null;
+                flowFile = standardize(context, session, flowFile, flowFormat, invalidDates, options, failed, metrics);
+                flowFile = putMetricAttributes(session, flowFile, metrics, start);
+                adjustCounters(session, metrics);
+                if (failed != null && !failed.isEmpty())
+                    session.transfer(failed.toFlowFile(session, flowFile), StandardizeDateRelationships.REL_FAILURE);
+                session.transfer(flowFile, StandardizeDateRelationships.REL_SUCCESS);
+
+            } catch (ProcessException | AvroRuntimeException e) {
+                getLogger().error("Failed to standardize {} after {} records", new Object[] {flowFile, metrics.getRecordCount()}, e);
+                adjustCounters(session, metrics);
+                session.adjustCounter("FlowFiles Failed", 1, false);
+                session.transfer(flowFile, StandardizeDateRelationships.REL_FAILURE);
             }
-            final String flowFormat = context.getProperty(StandardizeDateProperties.FLOW_FORMAT).getValue();
+        }
+    }
+
+    /** Attribute names are compiled as they are, since they aren't paths. */
+    private static InvalidDates compileInvalidDates(final ProcessContext context, final String invalidDates, final String timezone) {
+        return context.getProperty(StandardizeDateProperties.FLOW_FORMAT).getValue().equals("ATTRIBUTES")
+            ? InvalidDates.compileAttributes(invalidDates, timezone)
+            : InvalidDates.compile(invalidDates, timezone);
+    }
+
+    /**
+     * Standardizes the attributes named in the Invalid Dates, treating the
+     * FlowFile as a single record; attributes that aren't set are skipped. A
+     * failure fails the whole FlowFile under the RECORD policy too, and under
+     * the NULL policy the standardized attribute is left unset.
+     */
+    private FlowFile standardizeAttributes(final ProcessSession session, FlowFile flowFile, final InvalidDates invalidDates,
+            final StandardizeOptions options, final ConversionMetrics metrics) {
+        final Map<String, String> attributes = new HashMap<>();
+        final Set<String> removed = new HashSet<>();
+        final RecordTimezone zone = new RecordTimezone(invalidDates);
+        if (options.getTimezoneField() != null)
+            zone.set(flowFile.getAttribute(options.getTimezoneField()));
+        for (String name : invalidDates.fieldNames()) {
+            final String invalidDate = flowFile.getAttribute(name);
+            if (invalidDate == null)
+                continue;
+            final String standardizedName = options.isReplace() ? name : name + "_standardized";
+            final Object standardized = standardize(invalidDate, name, invalidDates.get(name), zone, options, null, metrics);
+            if (standardized != null)
+                attributes.put(standardizedName, standardized.toString());
+            else
+                removed.add(standardizedName);
+        }
+        metrics.record();
+
+        if (!removed.isEmpty())
+            flowFile = session.removeAllAttributes(flowFile, removed);
+        return attributes.isEmpty() ? flowFile : session.putAllAttributes(flowFile, attributes);
+    }
+
+    /**
+     * Whether the FlowFile has any of the configured fields, judged by the Avro
+     * schema or by a JSON scan that stops at the first one. Content that can't
+     * be read counts as having them, so that it fails the usual way.
+     */
+    private boolean containsDateFields(final ProcessContext context, final ProcessSession session, final FlowFile flowFile,
+            final String flowFormat, final InvalidDates invalidDates) {
+        if (flowFormat.equals("AVRO")) {
             final String schemaString = context.getProperty(StandardizeDateProperties.AVRO_SCHEMA).evaluateAttributeExpressions(flowFile).getValue();
-            final String timezone = context.getProperty(StandardizeDateProperties.TIMEZONE).evaluateAttributeExpressions(flowFile).getValue();
-            
-            session.write(flowFile, new StreamCallback(){
-                @Override
-                public void process(InputStream in, OutputStream out) throws IOException {
-                    Map<String,String> invalidDates = new ObjectMapper()
-                        .readValue(invalidDatesString, new TypeReference<CaseInsensitiveMap<String,String>>(){});
-
-                    JsonFactory jsonFactory = new JsonFactory().setRootValueSeparator(null);
-
-                    ByteArrayOutputStream baos = new ByteArrayOutputStream();
-
-                    JsonParser jsonParser;
-                    JsonGenerator jsonGen = jsonFactory.createGenerator(baos);
-                    
-                    Schema schema = null;
-                    List<Schema.Field> schemaFields;
-                    Set<Schema.Field> newSchemaFields = new HashSet<>();
-                    if (flowFormat.equals("AVRO")) {
-                        try {
-                            schema = new Schema.Parser().parse(schemaString);
-                        } catch (NullPointerException e) {
-                            schema = FormatStream.getEmbeddedSchema(in);
-                            in.reset();
-                        }
-                        schemaFields = schema.getFields();
-                        for(Schema.Field f : schemaFields) {
-                            Schema.Field oldField = new Schema.Field(f.name(), f.schema(), f.doc(), f.defaultVal());
-                            newSchemaFields.add(oldField);
-                        }
-                        in = FormatStream.avroToJson(in, schema);
-                    }
+            if (schemaString != null)
+                return containsDateFields(parsedSchemas.get(schemaString, s -> new Schema.Parser().parse(s)), invalidDates);
+        }
+
+        final boolean[] found = {true};
+        session.read(flowFile, new InputStreamCallback() {
+            @Override
+            public void process(InputStream in) throws IOException {
+                try {
+                    found[0] = flowFormat.equals("AVRO")
+                        ? containsDateFields(FormatStream.getEmbeddedSchema(in), invalidDates)
+                        : containsDateFields(jsonFactory.createParser(in), invalidDates);
+                } catch (IOException | AvroRuntimeException e) {
+                    found[0] = true;
+                }
+            }
+        });
+        return found[0];
+    }
+
+    private static boolean containsDateFields(final Schema schema, final InvalidDates invalidDates) {
+        for (Schema.Field f : schema.getFields())
+            if (invalidDates.getPaths().child(f.name()) != null)
+                return true;
+        return false;
+    }
+
+    private static boolean containsDateFields(final JsonParser jsonParser, final InvalidDates invalidDates) throws IOException {
+        final FieldPathTracker paths = invalidDates.tracker();
+        JsonToken token;
+        while ((token = jsonParser.nextToken()) != null) {
+            if (token == JsonToken.FIELD_NAME) {
+                if (paths.field(jsonParser.currentName()) != null)
+                    return true;
+                if (paths.canSkip()) {
+                    jsonParser.nextToken();
+                    jsonParser.skipChildren();
+                }
+            } else {
+                paths.follow(token);
+            }
+        }
+        return false;
+    }
 
-                    Reader r = new InputStreamReader(in);
-                    BufferedReader br = new BufferedReader(r);
-                    String line;
-
-                    while ((line = br.readLine()) != null) {
-                        jsonParser = jsonFactory.createParser(line);
-                        while (jsonParser.nextToken() != null) {
-                            jsonGen.copyCurrentEvent(jsonParser);
-                            String tokenString = jsonParser.getText();
-                            if(jsonParser.getCurrentToken() == JsonToken.FIELD_NAME && invalidDates.containsKey(tokenString)) {
-                                jsonParser.nextToken();
-                                jsonGen.copyCurrentEvent(jsonParser);
-
-                                String newFieldName = tokenString + "_standardized";
-                                jsonGen.writeFieldName(newFieldName);
-
-                                String invalidDate = jsonParser.getText();
-                                String invalidDateFormat = invalidDates.get(tokenString);
-                                String standardizedDate;
-
-                                try {
-                                    if (invalidDate != "null") {
-                                        standardizedDate = ManipulateDate.standardize(invalidDate, invalidDateFormat, timezone);
-                                        jsonGen.writeString(standardizedDate);
-                                    }
-                                    else
-                                        jsonGen.writeNull();
-                                } catch (Exception e) {
-                                    throw new ProcessException("Couldn't convert '" + invalidDate + "' with format '" + invalidDateFormat + "' with timezone '" + timezone + "'");
-                                }
-
-                                if (flowFormat.equals("AVRO")) {
-                                    if (schema.getField(tokenString).schema().getType() == Schema.Type.UNION) {
-                                        ArrayList<Schema> unionSchema = new ArrayList<>();
-                                        unionSchema.add(Schema.create(Schema.Type.NULL));
-                                        unionSchema.add(Schema.create(Schema.Type.STRING));
-                                        newSchemaFields.add(new Schema.Field(newFieldName, Schema.createUnion(unionSchema), null, NullNode.getInstance()));
-                                    } else
-                                        newSchemaFields.add(new Schema.Field(newFieldName, Schema.create(Type.STRING), null, "null"));
-                                }
+    private FlowFile standardize(final ProcessContext context, final ProcessSession session, final FlowFile flowFile,
+            final String flowFormat, final InvalidDates invalidDates, final StandardizeOptions options, final FailedRecords failed,
+            final ConversionMetrics metrics) {
+        final String schemaString = context.getProperty(StandardizeDateProperties.AVRO_SCHEMA).evaluateAttributeExpressions(flowFile).getValue();
+        final AvroOutput avroOutput = flowFormat.equals("AVRO") ? new AvroOutput(context) : null;
+        final ForkJoinPool pool = chunkPool;
+
+        return session.write(flowFile, new StreamCallback(){
+            @Override
+            public void process(InputStream in, OutputStream out) throws IOException {
+                if (flowFormat.equals("AVRO"))
+                    standardizeAvro(in, out, invalidDates, schemaString, avroOutput, options, failed, metrics);
+                else if (pool != null)
+                    ParallelChunks.process(in, out, pool, 2 * pool.getParallelism(), ParallelChunks.DEFAULT_CHUNK_SIZE,
+                        (chunkIn, chunkOut) -> {
+                            final ConversionMetrics chunkMetrics = new ConversionMetrics();
+                            final FailedRecords chunkFailed = failed == null ? null : new FailedRecords();
+                            try {
+                                standardizeJson(chunkIn, chunkOut, invalidDates, options, chunkFailed, chunkMetrics);
+                            } finally {
+                                metrics.merge(chunkMetrics);
                             }
+                            // failed records are appended in chunk order, like the output
+                            return failed == null ? null : () -> failed.merge(chunkFailed);
+                        });
+                else
+                    standardizeJson(in, out, invalidDates, options, failed, metrics);
+            }
+        });
+    }
+
+    static FlowFile putMetricAttributes(final ProcessSession session, final FlowFile flowFile, final ConversionMetrics metrics, final long startNanos) {
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("standardize.record.count", String.valueOf(metrics.getRecordCount()));
+        attributes.put("standardize.millis", String.valueOf((System.nanoTime() - startNanos) / 1_000_000));
+        return session.putAllAttributes(flowFile, attributes);
+    }
+
+    static void adjustCounters(final ProcessSession session, final ConversionMetrics metrics) {
+        session.adjustCounter("Records Processed", metrics.getRecordCount(), false);
+        session.adjustCounter("Fields Standardized", metrics.getFieldCount(), false);
+        session.adjustCounter("Null Dates", metrics.getNullCount(), false);
+        session.adjustCounter("Conversion Cache Hits", metrics.getCacheHitCount(), false);
+        for (Map.Entry<String, Long> e : metrics.getLatencyHistogram().entrySet())
+            if (e.getValue() > 0)
+                session.adjustCounter("Sampled Conversion Latency " + e.getKey(), e.getValue(), false);
+        for (Map.Entry<String, Long> e : metrics.getFailures().entrySet())
+            session.adjustCounter("Failures on " + e.getKey(), e.getValue(), false);
+    }
+
+    /**
+     * Evaluates the Invalid Dates and Timezone properties against the FlowFile,
+     * returning null when there is nothing to standardize.
+     */
+    static List<String> evaluateInvalidDates(final ProcessContext context, final FlowFile flowFile) {
+        final String invalidDatesString = context.getProperty(StandardizeDateProperties.INVALID_DATES).evaluateAttributeExpressions(flowFile).getValue();
+        if ("".equals(invalidDatesString) || invalidDatesString == null)
+            return null;
+        final String timezone = context.getProperty(StandardizeDateProperties.TIMEZONE).evaluateAttributeExpressions(flowFile).getValue();
+
+        return Arrays.asList(invalidDatesString, timezone);
+    }
+
+    private void standardizeJson(InputStream in, OutputStream out, InvalidDates invalidDates, StandardizeOptions options,
+            FailedRecords failed, ConversionMetrics metrics) throws IOException {
+        if (failed != null) {
+            standardizeJsonRecords(in, out, invalidDates, options, failed, metrics);
+            return;
+        }
+
+        final boolean replace = options.isReplace();
+        final CharBuffer buffer = CharBuffer.allocate(DateConverter.MAX_STANDARD_LENGTH);
+        final RecordTimezone zone = new RecordTimezone(invalidDates);
+        JsonParser jsonParser = createParser(in, options, zone);
+        JsonGenerator jsonGen = jsonFactory.createGenerator(out);
+        FieldPathTracker paths = invalidDates.tracker();
+        InvalidDates.Match match;
+        JsonToken token;
+
+        while ((token = jsonParser.nextToken()) != null) {
+            jsonGen.copyCurrentEvent(jsonParser);
+            if (token == JsonToken.FIELD_NAME && (match = paths.field(jsonParser.currentName())) != null) {
+                token = jsonParser.nextToken();
+                if (!replace) {
+                    jsonGen.copyCurrentEvent(jsonParser);
+                    jsonGen.writeFieldName(match.getStandardizedName());
+                }
+
+                Object standardized = null;
+                if (token != JsonToken.VALUE_NULL)
+                    standardized = standardize(jsonParser.getText(), match.getField(), match.getConverter(), zone, options, buffer, metrics);
+                else
+                    metrics.nullDate();
+                writeStandardized(jsonGen, standardized);
+            } else if (token == JsonToken.FIELD_NAME && paths.canSkip()) {
+                // no configured path goes through this value
+                jsonParser.nextToken();
+                jsonGen.copyCurrentStructure(jsonParser);
+                continue;
+            }
+            paths.follow(token);
+            if (jsonParser.getParsingContext().inRoot()) {
+                jsonGen.writeRaw("\n");
+                metrics.record();
+            }
+        }
+        jsonGen.flush();
+    }
+
+    /**
+     * The RECORD failure policy for JSON: each record is written both as-is and
+     * standardized to buffers, and only one of the two is kept once the record
+     * ends, since a failure can come after part of the record was written.
+     */
+    private void standardizeJsonRecords(InputStream in, OutputStream out, InvalidDates invalidDates, StandardizeOptions options,
+            FailedRecords failed, ConversionMetrics metrics) throws IOException {
+        final boolean replace = options.isReplace();
+        final CharBuffer buffer = CharBuffer.allocate(DateConverter.MAX_STANDARD_LENGTH);
+        ByteArrayOutputStream recordOut = new ByteArrayOutputStream();
+        ByteArrayOutputStream originalOut = new ByteArrayOutputStream();
+        final RecordTimezone zone = new RecordTimezone(invalidDates);
+        JsonParser jsonParser = createParser(in, options, zone);
+        JsonGenerator jsonGen = jsonFactory.createGenerator(recordOut);
+        JsonGenerator originalGen = jsonFactory.createGenerator(originalOut);
+        FieldPathTracker paths = invalidDates.tracker();
+        InvalidDates.Match match;
+        DateConversionException failure = null;
+        JsonToken token;
+
+        // both copies are written token by token, so values with no configured
+        // path are followed rather than passed over whole
+        while ((token = jsonParser.nextToken()) != null) {
+            jsonGen.copyCurrentEvent(jsonParser);
+            originalGen.copyCurrentEvent(jsonParser);
+            if (token == JsonToken.FIELD_NAME && (match = paths.field(jsonParser.currentName())) != null) {
+                token = jsonParser.nextToken();
+                originalGen.copyCurrentEvent(jsonParser);
+                if (!replace)
+                    jsonGen.copyCurrentEvent(jsonParser);
+
+                // once the record has failed its standardized copy is discarded,
+                // but a replaced field name still needs a value
+                if (replace || failure == null) {
+                    if (!replace)
+                        jsonGen.writeFieldName(match.getStandardizedName());
+                    Object standardized = null;
+                    if (token == JsonToken.VALUE_NULL) {
+                        metrics.nullDate();
+                    } else if (failure == null) {
+                        try {
+                            standardized = standardize(jsonParser.getText(), match.getField(), match.getConverter(), zone, options, buffer, metrics);
+                        } catch (DateConversionException e) {
+                            failure = e;
                         }
-                        jsonGen.writeRaw("\n");
                     }
-                    jsonGen.flush();
+                    writeStandardized(jsonGen, standardized);
+                }
+            }
+            paths.follow(token);
+            if (jsonParser.getParsingContext().inRoot()) {
+                jsonGen.writeRaw("\n");
+                originalGen.writeRaw("\n");
+                jsonGen.flush();
+                originalGen.flush();
+                if (failure == null) {
+                    recordOut.writeTo(out);
+                } else {
+                    originalOut.writeTo(failed.getOutputStream());
+                    failed.failed(failure);
+                    failure = null;
+                }
+                recordOut.reset();
+                originalOut.reset();
+                metrics.record();
+            }
+        }
+    }
 
-                    if (flowFormat.equals("AVRO")) {
-                        Schema newSchema = Schema.createRecord(schema.getName(), schema.getDoc(), schema.getNamespace(), schema.isError());
-                        newSchema.setFields(new ArrayList<>(newSchemaFields));
-                        baos = FormatStream.jsonToAvro(baos, newSchema);
-                    }
+    /** A parser that buffers each record to find its timezone, if there is a Timezone Field. */
+    private JsonParser createParser(InputStream in, StandardizeOptions options, RecordTimezone zone) throws IOException {
+        final JsonParser jsonParser = jsonFactory.createParser(in);
+        return options.getTimezoneField() == null ? jsonParser : new TimezoneFieldParser(jsonParser, options.getTimezonePath(), zone);
+    }
+
+    private static void writeStandardized(JsonGenerator jsonGen, Object standardized) throws IOException {
+        if (standardized == null)
+            jsonGen.writeNull();
+        else if (standardized instanceof Long)
+            jsonGen.writeNumber((Long) standardized);
+        else if (standardized instanceof CharBuffer)
+            jsonGen.writeString(((CharBuffer) standardized).array(), 0, ((CharBuffer) standardized).limit());
+        else
+            jsonGen.writeString((String) standardized);
+    }
+
+    private void standardizeAvro(InputStream in, OutputStream out, InvalidDates invalidDates, String schemaString, AvroOutput avroOutput,
+            StandardizeOptions options, FailedRecords failed, ConversionMetrics metrics) throws IOException {
+        Schema readerSchema = schemaString == null ? null : parsedSchemas.get(schemaString, s -> new Schema.Parser().parse(s));
+        DatumReader<GenericRecord> datumReader = readerSchema == null ? new GenericDatumReader<>() : new GenericDatumReader<>(readerSchema);
+
+        try (DataFileStream<GenericRecord> reader = new DataFileStream<>(in, datumReader)) {
+            Schema schema = readerSchema == null ? reader.getSchema() : readerSchema;
+            final String[] timezonePath = options.getTimezonePath();
+            if (timezonePath != null)
+                checkTimezoneField(schema, timezonePath, options.getTimezoneField());
+            // keyed on the full schema text, since the derived schema carries
+            // over docs, defaults and logical types that its canonical form drops
+            String schemaText = readerSchema == null ? reader.getMetaString(DataFileConstants.SCHEMA) : schemaString;
+            List<Object> key = Arrays.asList(schemaText, invalidDates, options.getOutput(), options.isReplace());
+            StandardizedSchema standardized = standardizedSchemas.get(key,
+                k -> StandardizedSchema.derive(schema, invalidDates, options.getOutput(), options.isReplace()));
+            Schema newSchema = standardized.getStandardizedSchema();
+
+            CodecFactory codec = avroOutput.getCodec(reader);
+            DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<GenericRecord>(newSchema));
+            writer.setCodec(codec);
+            writer.setSyncInterval(avroOutput.getSyncInterval());
+            writer.create(newSchema, out);
+            DataFileWriter<GenericRecord> failedWriter = null;
 
-                    baos.writeTo(out);
+            // each record is appended before the next is read, so the
+            // standardized strings can be encoded into reused buffers
+            final CharBuffer buffer = CharBuffer.allocate(DateConverter.MAX_STANDARD_LENGTH);
+            final Utf8[] utf8s = new Utf8[standardized.getDateFieldCount()];
+            final RecordTimezone zone = new RecordTimezone(invalidDates);
+            for (int i = 0; i < utf8s.length; i++)
+                utf8s[i] = new Utf8();
+
+            GenericRecord record = null;
+            GenericRecord newRecord = new GenericData.Record(newSchema);
+            while (reader.hasNext()) {
+                record = reader.next(record);
+                if (timezonePath != null)
+                    zone.set(timezone(record, timezonePath));
+                try {
+                    writer.append(standardizeRecord(record, newRecord, standardized, utf8s, zone, options, buffer, metrics));
+                } catch (DataFileWriter.AppendWriteException e) {
+                    throw new ProcessException("Couldn't write a standardized record", e);
+                } catch (DateConversionException e) {
+                    if (failed == null)
+                        throw e;
+                    if (failedWriter == null) {
+                        failedWriter = new DataFileWriter<>(new GenericDatumWriter<GenericRecord>(schema));
+                        failedWriter.setCodec(codec);
+                        failedWriter.setSyncInterval(avroOutput.getSyncInterval());
+                        failedWriter.create(schema, failed.getOutputStream());
+                    }
+                    failedWriter.append(record);
+                    failed.failed(e);
                 }
-            });
-            
-            session.transfer(flowFile, StandardizeDateRelationships.REL_SUCCESS);
+                metrics.record();
+            }
+            writer.flush();
+            if (failedWriter != null)
+                failedWriter.close();
+        }
+    }
+
+    /**
+     * Fails the FlowFile if the schema has no Timezone Field, rather than
+     * silently using the Timezone property for every record.
+     */
+    private static void checkTimezoneField(Schema schema, String[] timezonePath, String timezoneField) {
+        for (String name : timezonePath) {
+            Schema recordSchema = null;
+            if (schema.getType() == Schema.Type.RECORD) {
+                recordSchema = schema;
+            } else if (schema.getType() == Schema.Type.UNION) {
+                for (Schema type : schema.getTypes())
+                    if (type.getType() == Schema.Type.RECORD)
+                        recordSchema = type;
+            }
+            Schema.Field field = recordSchema == null ? null : recordSchema.getField(name);
+            if (field == null)
+                throw new ProcessException("Timezone Field '" + timezoneField + "' is not in the Avro schema");
+            schema = field.schema();
+        }
+    }
+
+    /** The value at the end of the Timezone Field path, or null if the record has none. */
+    private static Object timezone(GenericRecord record, String[] timezonePath) {
+        Object value = record;
+        for (String name : timezonePath) {
+            if (!(value instanceof GenericRecord))
+                return null;
+            GenericRecord parent = (GenericRecord) value;
+            Schema.Field field = parent.getSchema().getField(name);
+            value = field == null ? null : parent.get(field.pos());
+        }
+        return value;
+    }
 
-        } catch (ProcessException e) {
-            getLogger().error("Something went wrong", e);
-            session.transfer(flowFile, StandardizeDateRelationships.REL_FAILURE);
+    /**
+     * Fills newRecord with record's fields and its standardized dates, and
+     * with nested records standardized into new ones. utf8s hold the
+     * standardized strings of a top-level record and are reused across
+     * records; nested records, which stay alive until the top-level record is
+     * written, are given null and get their own.
+     */
+    private GenericRecord standardizeRecord(GenericRecord record, GenericRecord newRecord, StandardizedSchema standardized, Utf8[] utf8s,
+            RecordTimezone zone, StandardizeOptions options, CharBuffer buffer, ConversionMetrics metrics) {
+        final int fieldCount = standardized.getSchema().getFields().size();
+        for (int pos = 0; pos < fieldCount; pos++)
+            newRecord.put(standardized.getStandardizedPosition(pos), record.get(pos));
+        for (int i = 0; i < standardized.getNestedFieldCount(); i++) {
+            int pos = standardized.getNestedPosition(i);
+            newRecord.put(standardized.getStandardizedPosition(pos), standardizeNested(record.get(pos), standardized, i, zone, options, buffer, metrics));
         }
+        for (int i = 0; i < standardized.getDateFieldCount(); i++) {
+            Object invalidDate = record.get(standardized.getDatePosition(i));
+            Object value = null;
+            if (invalidDate == null)
+                metrics.nullDate();
+            else
+                value = standardize(invalidDate.toString(), standardized.getDateField(i), standardized.getDateConverter(i),
+                    zone, options, buffer, metrics);
+            newRecord.put(standardized.getTargetPosition(i),
+                value instanceof CharBuffer ? FormatStream.toUtf8((CharBuffer) value, utf8s == null ? new Utf8() : utf8s[i]) : value);
+        }
+        return newRecord;
+    }
+
+    /**
+     * The value of the i-th nested field of standardized, with the records in
+     * it standardized; anything else is kept as it is.
+     */
+    private Object standardizeNested(Object value, StandardizedSchema standardized, int i, RecordTimezone zone, StandardizeOptions options,
+            CharBuffer buffer, ConversionMetrics metrics) {
+        if (value instanceof GenericRecord) {
+            GenericRecord record = (GenericRecord) value;
+            StandardizedSchema nested = standardized.getNested(i, record.getSchema().getFullName());
+            return nested == null ? record
+                : standardizeRecord(record, new GenericData.Record(nested.getStandardizedSchema()), nested, null, zone, options, buffer, metrics);
+        }
+        if (value instanceof Collection) {
+            List<Object> elements = new ArrayList<>(((Collection<?>) value).size());
+            for (Object element : (Collection<?>) value)
+                elements.add(standardizeNested(element, standardized, i, zone, options, buffer, metrics));
+            return elements;
+        }
+        return value;
+    }
+
+    /** The codec and block size settings for Avro output. */
+    private static final class AvroOutput {
+
+        private final String codec;
+        private final Integer level;
+        private final int syncInterval;
+
+        AvroOutput(final ProcessContext context) {
+            this.codec = context.getProperty(StandardizeDateProperties.AVRO_CODEC).getValue().toLowerCase();
+            this.level = context.getProperty(StandardizeDateProperties.COMPRESSION_LEVEL).asInteger();
+            final PropertyValue syncInterval = context.getProperty(StandardizeDateProperties.SYNC_INTERVAL);
+            this.syncInterval = syncInterval.isSet() ? syncInterval.asDataSize(DataUnit.B).intValue() : DataFileConstants.DEFAULT_SYNC_INTERVAL;
+        }
+
+        CodecFactory getCodec(DataFileStream<?> reader) {
+            if (!codec.equals("inherit"))
+                return FormatStream.codec(codec, level);
+
+            final String inherited = reader.getMetaString(DataFileConstants.CODEC);
+            return FormatStream.codec(inherited == null ? DataFileConstants.NULL_CODEC : inherited, level);
+        }
+
+        int getSyncInterval() {
+            return syncInterval;
+        }
+    }
+
+    /**
+     * Converts a non-null date to the output format, returning null instead of
+     * throwing if it can't be converted under the NULL failure policy. Without
+     * the conversion cache, STRING output is written into the buffer if there
+     * is one, which is returned with its limit set to the length. The converter
+     * is for the Timezone property and is swapped for the record's timezone.
+     */
+    private Object standardize(String invalidDate, String field, DateConverter converter, RecordTimezone zone, StandardizeOptions options,
+            CharBuffer buffer, ConversionMetrics metrics) {
+        try {
+            final DateConverter recordConverter = zone.converter(field, converter);
+            final Object standardized;
+            if (metrics.sample()) {
+                final long start = System.nanoTime();
+                standardized = convert(invalidDate, recordConverter, options.getOutput(), buffer, metrics);
+                metrics.latency(System.nanoTime() - start);
+            } else {
+                standardized = convert(invalidDate, recordConverter, options.getOutput(), buffer, metrics);
+            }
+            metrics.standardized();
+            return standardized;
+        } catch (Exception e) {
+            metrics.failure(field);
+            if (options.isNullOnFailure())
+                return null;
+            throw new DateConversionException(field, invalidDate, converter.getFormat(), zone.getTimezone(), e);
+        }
+    }
+
+    private Object convert(String invalidDate, DateConverter converter, OutputFormat output, CharBuffer buffer, ConversionMetrics metrics) {
+        final ConversionMemo memo = conversionMemo;
+        if (memo != null)
+            return memo.convert(converter, output, invalidDate, metrics);
+        if (output != OutputFormat.STRING || buffer == null)
+            return output.convert(converter, invalidDate);
+
+        buffer.clear();
+        buffer.limit(converter.standardize(invalidDate, buffer.array()));
+        return buffer;
     }
 }
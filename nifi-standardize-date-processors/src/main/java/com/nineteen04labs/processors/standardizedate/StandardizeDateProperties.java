@@ -16,17 +16,22 @@
  */
 package com.nineteen04labs.processors.standardizedate;
 
+import java.util.regex.Pattern;
+
 import org.apache.nifi.components.PropertyDescriptor;
 import org.apache.nifi.processor.util.StandardValidators;
+import org.apache.nifi.serialization.RecordReaderFactory;
+import org.apache.nifi.serialization.RecordSetWriterFactory;
 
 public class StandardizeDateProperties {
 
     public static final PropertyDescriptor FLOW_FORMAT = new PropertyDescriptor
             .Builder().name("FLOW_FORMAT")
             .displayName("FlowFile Format")
-            .description("Specify the format of the incoming FlowFile. If AVRO, output is automatically Snappy compressed.")
+            .description("Specify the format of the incoming FlowFile. If AVRO, output is compressed with the Avro Codec. "
+                + "If ATTRIBUTES, the Invalid Dates name FlowFile attributes, which are standardized into attributes without reading the content.")
             .required(true)
-            .allowableValues("JSON", "AVRO")
+            .allowableValues("JSON", "AVRO", "ATTRIBUTES")
             .defaultValue("JSON")
             .build();
 
@@ -39,10 +44,39 @@ public class StandardizeDateProperties {
             .expressionLanguageSupported(true)
             .build();
             
+    public static final PropertyDescriptor AVRO_CODEC = new PropertyDescriptor
+            .Builder().name("AVRO_CODEC")
+            .displayName("Avro Codec")
+            .description("The compression codec of Avro output. INHERIT uses the codec of the incoming Avro file.")
+            .required(true)
+            .allowableValues("SNAPPY", "DEFLATE", "BZIP2", "XZ", "NULL", "INHERIT")
+            .defaultValue("SNAPPY")
+            .build();
+
+    public static final PropertyDescriptor COMPRESSION_LEVEL = new PropertyDescriptor
+            .Builder().name("COMPRESSION_LEVEL")
+            .displayName("Compression Level")
+            .description("The compression level of the DEFLATE and XZ codecs, from 0 (fastest) to 9 (smallest). Uses the codec's default if not set.")
+            .required(false)
+            .addValidator(StandardValidators.createLongValidator(0, 9, true))
+            .build();
+
+    public static final PropertyDescriptor SYNC_INTERVAL = new PropertyDescriptor
+            .Builder().name("SYNC_INTERVAL")
+            .displayName("Sync Interval")
+            .description("The approximate size of Avro output blocks before compression, between 32 B and 1 GB. Larger blocks compress better; "
+                + "smaller blocks need less memory to read. Uses Avro's default of 64000 B if not set.")
+            .required(false)
+            .addValidator(StandardValidators.createDataSizeBoundsValidator(32, 1 << 30))
+            .build();
+
     public static final PropertyDescriptor INVALID_DATES = new PropertyDescriptor
             .Builder().name("INVALID_DATES")
             .displayName("Invalid Dates")
-            .description("JSON Object of key/value pairs with name of field in FlowFile as key and type of date as value. For example: {\"my_date_field\": \"MM/dd/yyyy\"}")
+            .description("JSON Object of key/value pairs with name of field in FlowFile as key and type of date as value. For example: {\"my_date_field\": \"MM/dd/yyyy\"}. "
+                + "A field may also list several formats to try, for example {\"my_date_field\": [\"MM/dd/yyyy\", \"yyyy-MM-dd\"]}; "
+                + "the format that matches most often is tried first. A key may be a path to a nested field, such as \"location.updated_at\" "
+                + "or \"events[].ts\", in which case every key is matched by its path from the top of the record.")
             .required(false)
             .addValidator(StandardValidators.NON_EMPTY_VALIDATOR)
             .expressionLanguageSupported(true)
@@ -56,4 +90,93 @@ public class StandardizeDateProperties {
             .addValidator(StandardValidators.NON_EMPTY_VALIDATOR)
             .expressionLanguageSupported(true)
             .build();
+
+    public static final PropertyDescriptor TIMEZONE_FIELD = new PropertyDescriptor
+            .Builder().name("TIMEZONE_FIELD")
+            .displayName("Timezone Field")
+            .description("The field holding each record's originating timezone, such as \"site_timezone\", or a dot-separated path to a nested one, "
+                + "such as \"location.tz\"; with the ATTRIBUTES FlowFile Format, the name of an attribute. Records without a value use the Timezone property. "
+                + "A record whose timezone is unknown fails like a date that can't be converted, and an Avro or record schema without the field fails the FlowFile.")
+            .required(false)
+            .addValidator(StandardValidators.createRegexMatchingValidator(Pattern.compile("[^.\\[\\]]+(\\.[^.\\[\\]]+)*")))
+            .build();
+
+    public static final PropertyDescriptor FAILURE_POLICY = new PropertyDescriptor
+            .Builder().name("FAILURE_POLICY")
+            .displayName("Failure Policy")
+            .description("What to do with a date that can't be converted. FLOWFILE routes the whole FlowFile to failure. "
+                + "RECORD routes the records that fail to a new FlowFile on failure, annotated with the field, value and format of the first failure, "
+                + "and the remaining records to success. NULL writes a null standardized value and continues.")
+            .required(true)
+            .allowableValues("FLOWFILE", "RECORD", "NULL")
+            .defaultValue("FLOWFILE")
+            .build();
+
+    public static final PropertyDescriptor OUTPUT_FORMAT = new PropertyDescriptor
+            .Builder().name("OUTPUT_FORMAT")
+            .displayName("Output Format")
+            .description("The representation of standardized dates. STRING writes 'yyyy-MM-dd HH:mm:ss.SSS' in UTC. EPOCH_MILLIS and EPOCH_MICROS write "
+                + "the UTC milliseconds or microseconds since the epoch as a number; in Avro, a long with a timestamp-millis or timestamp-micros logical type.")
+            .required(true)
+            .allowableValues("STRING", "EPOCH_MILLIS", "EPOCH_MICROS")
+            .defaultValue("STRING")
+            .build();
+
+    public static final PropertyDescriptor OUTPUT_PLACEMENT = new PropertyDescriptor
+            .Builder().name("OUTPUT_PLACEMENT")
+            .displayName("Output Placement")
+            .description("ADD writes the standardized date to a new field named after the date field with a '_standardized' suffix. "
+                + "REPLACE writes it in place of the date field.")
+            .required(true)
+            .allowableValues("ADD", "REPLACE")
+            .defaultValue("ADD")
+            .build();
+
+    public static final PropertyDescriptor BATCH_SIZE = new PropertyDescriptor
+            .Builder().name("BATCH_SIZE")
+            .displayName("Batch Size")
+            .description("The maximum number of FlowFiles to standardize in a single invocation of the processor.")
+            .required(true)
+            .defaultValue("100")
+            .addValidator(StandardValidators.POSITIVE_INTEGER_VALIDATOR)
+            .build();
+
+    public static final PropertyDescriptor CONVERSION_CACHE_SIZE = new PropertyDescriptor
+            .Builder().name("CONVERSION_CACHE_SIZE")
+            .displayName("Conversion Cache Size")
+            .description("The maximum number of distinct date values whose standardized result is remembered, shared by all concurrent tasks. "
+                + "The cache turns itself off if its hit rate is too low to pay for itself. Caches below 2048 entries are a single "
+                + "locked map, so concurrent tasks contend on it; use it for low-cardinality date fields. 0 disables it.")
+            .required(true)
+            .defaultValue("0")
+            .addValidator(StandardValidators.NON_NEGATIVE_INTEGER_VALIDATOR)
+            .build();
+
+    public static final PropertyDescriptor PARALLELISM = new PropertyDescriptor
+            .Builder().name("PARALLELISM")
+            .displayName("Parallelism")
+            .description("The number of threads used to standardize a single JSON FlowFile. Above 1, newline-delimited content is split "
+                + "into chunks on line boundaries that are standardized in parallel and written back in their original order. "
+                + "The pool is shared by all concurrent tasks.")
+            .required(true)
+            .defaultValue("1")
+            .addValidator(StandardValidators.POSITIVE_INTEGER_VALIDATOR)
+            .build();
+
+    public static final PropertyDescriptor RECORD_READER = new PropertyDescriptor
+            .Builder().name("RECORD_READER")
+            .displayName("Record Reader")
+            .description("The Record Reader used to parse incoming FlowFiles.")
+            .required(true)
+            .identifiesControllerService(RecordReaderFactory.class)
+            .build();
+
+    public static final PropertyDescriptor RECORD_WRITER = new PropertyDescriptor
+            .Builder().name("RECORD_WRITER")
+            .displayName("Record Writer")
+            .description("The Record Writer used to serialize standardized records. Its schema access strategy decides the output schema; "
+                + "when it inherits the record schema, each date field is followed by a string field named after it with a '_standardized' suffix.")
+            .required(true)
+            .identifiesControllerService(RecordSetWriterFactory.class)
+            .build();
 }
@@ -0,0 +1,325 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.nineteen04labs.processors.standardizedate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import com.nineteen04labs.processors.util.BoundedCache;
+import com.nineteen04labs.processors.util.ConversionMemo;
+import com.nineteen04labs.processors.util.ConversionMetrics;
+import com.nineteen04labs.processors.util.DateConverter;
+import com.nineteen04labs.processors.util.OutputFormat;
+
+import org.apache.nifi.annotation.behavior.SupportsBatching;
+import org.apache.nifi.annotation.behavior.WritesAttribute;
+import org.apache.nifi.annotation.behavior.WritesAttributes;
+import org.apache.nifi.annotation.documentation.CapabilityDescription;
+import org.apache.nifi.annotation.documentation.Tags;
+import org.apache.nifi.annotation.lifecycle.OnScheduled;
+import org.apache.nifi.components.PropertyDescriptor;
+import org.apache.nifi.components.PropertyValue;
+import org.apache.nifi.flowfile.FlowFile;
+import org.apache.nifi.flowfile.attributes.CoreAttributes;
+import org.apache.nifi.processor.AbstractProcessor;
+import org.apache.nifi.processor.ProcessContext;
+import org.apache.nifi.processor.ProcessSession;
+import org.apache.nifi.processor.ProcessorInitializationContext;
+import org.apache.nifi.processor.Relationship;
+import org.apache.nifi.processor.exception.ProcessException;
+import org.apache.nifi.processor.io.StreamCallback;
+import org.apache.nifi.schema.access.SchemaNotFoundException;
+import org.apache.nifi.serialization.MalformedRecordException;
+import org.apache.nifi.serialization.RecordReader;
+import org.apache.nifi.serialization.RecordReaderFactory;
+import org.apache.nifi.serialization.RecordSetWriter;
+import org.apache.nifi.serialization.RecordSetWriterFactory;
+import org.apache.nifi.serialization.WriteResult;
+import org.apache.nifi.serialization.record.DataType;
+import org.apache.nifi.serialization.record.MapRecord;
+import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordField;
+import org.apache.nifi.serialization.record.RecordFieldType;
+import org.apache.nifi.serialization.record.RecordSchema;
+import org.apache.nifi.serialization.record.type.ChoiceDataType;
+import org.apache.nifi.serialization.record.type.RecordDataType;
+
+@SupportsBatching
+@WritesAttributes({
+    @WritesAttribute(attribute = "record.count", description = "The number of records written"),
+    @WritesAttribute(attribute = "mime.type", description = "The MIME type reported by the Record Writer"),
+    @WritesAttribute(attribute = "standardize.record.count", description = "The number of records standardized"),
+    @WritesAttribute(attribute = "standardize.millis", description = "The time taken to standardize the FlowFile, in milliseconds")
+})
+@Tags({"date", "time", "datetime", "standardize", "standardization", "record"})
+@CapabilityDescription("NiFi processor to standardize date fields in any record format supported by a Record Reader and Record Writer.")
+public class StandardizeDateRecord extends AbstractProcessor {
+
+    private static final int SCHEMA_CACHE_SIZE = 64;
+    private static final int INVALID_DATES_CACHE_SIZE = 64;
+
+    private List<PropertyDescriptor> descriptors;
+    private Set<Relationship> relationships;
+
+    private final BoundedCache<List<Object>, StandardizedRecordSchema> standardizedSchemas = new BoundedCache<>(SCHEMA_CACHE_SIZE);
+    private final BoundedCache<List<String>, InvalidDates> compiledInvalidDates = new BoundedCache<>(INVALID_DATES_CACHE_SIZE);
+
+    private volatile InvalidDates scheduledInvalidDates;
+    private volatile ConversionMemo conversionMemo;
+
+    @Override
+    protected void init(final ProcessorInitializationContext context) {
+        final List<PropertyDescriptor> descriptors = new ArrayList<PropertyDescriptor>();
+        descriptors.add(StandardizeDateProperties.RECORD_READER);
+        descriptors.add(StandardizeDateProperties.RECORD_WRITER);
+        descriptors.add(StandardizeDateProperties.INVALID_DATES);
+        descriptors.add(StandardizeDateProperties.TIMEZONE);
+        descriptors.add(StandardizeDateProperties.TIMEZONE_FIELD);
+        descriptors.add(StandardizeDateProperties.FAILURE_POLICY);
+        descriptors.add(StandardizeDateProperties.OUTPUT_FORMAT);
+        descriptors.add(StandardizeDateProperties.OUTPUT_PLACEMENT);
+        descriptors.add(StandardizeDateProperties.BATCH_SIZE);
+        descriptors.add(StandardizeDateProperties.CONVERSION_CACHE_SIZE);
+        this.descriptors = Collections.unmodifiableList(descriptors);
+
+        final Set<Relationship> relationships = new HashSet<Relationship>();
+        relationships.add(StandardizeDateRelationships.REL_SUCCESS);
+        relationships.add(StandardizeDateRelationships.REL_FAILURE);
+        relationships.add(StandardizeDateRelationships.REL_BYPASS);
+        this.relationships = Collections.unmodifiableSet(relationships);
+    }
+
+    @Override
+    public Set<Relationship> getRelationships() {
+        return this.relationships;
+    }
+
+    @Override
+    public final List<PropertyDescriptor> getSupportedPropertyDescriptors() {
+        return descriptors;
+    }
+
+    @OnScheduled
+    public void onScheduled(final ProcessContext context) {
+        scheduledInvalidDates = null;
+
+        final int conversionCacheSize = context.getProperty(StandardizeDateProperties.CONVERSION_CACHE_SIZE).asInteger();
+        conversionMemo = conversionCacheSize > 0 ? new ConversionMemo(conversionCacheSize) : null;
+
+        final PropertyValue invalidDatesProperty = context.getProperty(StandardizeDateProperties.INVALID_DATES);
+        final PropertyValue timezoneProperty = context.getProperty(StandardizeDateProperties.TIMEZONE);
+        if (invalidDatesProperty.isSet() && !invalidDatesProperty.isExpressionLanguagePresent() && !timezoneProperty.isExpressionLanguagePresent()) {
+            try {
+                scheduledInvalidDates = InvalidDates.compile(invalidDatesProperty.evaluateAttributeExpressions().getValue(),
+                    timezoneProperty.evaluateAttributeExpressions().getValue());
+            } catch (ProcessException e) {
+                getLogger().warn("Couldn't compile Invalid Dates; FlowFiles will be routed to failure", e);
+            }
+        }
+    }
+
+    @Override
+    public void onTrigger(final ProcessContext context, final ProcessSession session) throws ProcessException {
+        final List<FlowFile> flowFiles = session.get(context.getProperty(StandardizeDateProperties.BATCH_SIZE).asInteger());
+        if (flowFiles.isEmpty()) {
+            return;
+        }
+
+        final RecordReaderFactory readerFactory = context.getProperty(StandardizeDateProperties.RECORD_READER).asControllerService(RecordReaderFactory.class);
+        final RecordSetWriterFactory writerFactory = context.getProperty(StandardizeDateProperties.RECORD_WRITER).asControllerService(RecordSetWriterFactory.class);
+        final StandardizeOptions options = StandardizeOptions.of(context);
+        final InvalidDates scheduled = scheduledInvalidDates;
+        List<String> previousKey = null;
+        InvalidDates previous = null;
+
+        for (FlowFile flowFile : flowFiles) {
+            final ConversionMetrics metrics = new ConversionMetrics();
+            try {
+                InvalidDates invalidDates = scheduled;
+                if (invalidDates == null) {
+                    final List<String> key = StandardizeDate.evaluateInvalidDates(context, flowFile);
+                    if (key == null) {
+                        session.transfer(flowFile, StandardizeDateRelationships.REL_BYPASS);
+                        continue;
+                    }
+                    if (!key.equals(previousKey)) {
+                        previous = compiledInvalidDates.get(key, k -> InvalidDates.compile(k.get(0), k.get(1)));
+                        previousKey = key;
+                    }
+                    invalidDates = previous;
+                }
+
+                final long start = System.nanoTime();
+                final FailedRecords failed = options.isRouteFailedRecords() ? new FailedRecords() : null;
+                flowFile = standardize(session, flowFile, readerFactory, writerFactory, invalidDates, options, failed, metrics);
+                flowFile = StandardizeDate.putMetricAttributes(session, flowFile, metrics, start);
+                StandardizeDate.adjustCounters(session, metrics);
+                if (failed != null && !failed.isEmpty())
+                    session.transfer(failed.toFlowFile(session, flowFile), StandardizeDateRelationships.REL_FAILURE);
+                session.transfer(flowFile, StandardizeDateRelationships.REL_SUCCESS);
+
+            } catch (ProcessException e) {
+                getLogger().error("Failed to standardize {} after {} records", new Object[] {flowFile, metrics.getRecordCount()}, e);
+                StandardizeDate.adjustCounters(session, metrics);
+                session.adjustCounter("FlowFiles Failed", 1, false);
+                session.transfer(flowFile, StandardizeDateRelationships.REL_FAILURE);
+            }
+        }
+    }
+
+    private FlowFile standardize(final ProcessSession session, final FlowFile flowFile, final RecordReaderFactory readerFactory,
+            final RecordSetWriterFactory writerFactory, final InvalidDates invalidDates, final StandardizeOptions options, final FailedRecords failed,
+            final ConversionMetrics metrics) {
+        final Map<String, String> originalAttributes = flowFile.getAttributes();
+        final Map<String, String> attributes = new HashMap<>();
+
+        FlowFile written = session.write(flowFile, new StreamCallback(){
+            @Override
+            public void process(InputStream in, OutputStream out) throws IOException {
+                try (RecordReader reader = readerFactory.createRecordReader(originalAttributes, in, getLogger())) {
+                    RecordSchema readSchema = reader.getSchema();
+                    StandardizedRecordSchema standardized = standardizedSchemas.get(Arrays.asList(readSchema, invalidDates, options.getOutput(), options.isReplace()),
+                        k -> StandardizedRecordSchema.derive(readSchema, invalidDates, options.getOutput(), options.isReplace()));
+                    RecordSchema writeSchema = writerFactory.getSchema(originalAttributes, standardized.getStandardizedSchema());
+                    List<String> readFields = readSchema.getFieldNames();
+
+                    final RecordTimezone zone = new RecordTimezone(invalidDates);
+                    final String[] timezonePath = options.getTimezonePath();
+                    if (timezonePath != null)
+                        checkTimezoneField(readSchema, timezonePath, options.getTimezoneField());
+                    RecordSetWriter failedWriter = null;
+                    try (RecordSetWriter writer = writerFactory.createWriter(getLogger(), writeSchema, out)) {
+                        writer.beginRecordSet();
+                        Record record;
+                        while ((record = reader.nextRecord()) != null) {
+                            if (timezonePath != null)
+                                zone.set(timezone(record, timezonePath));
+                            try {
+                                // readers drop fields their schema doesn't have, so the
+                                // standardized fields go into a new record; the read record
+                                // stays as it was, so a record that fails partway through
+                                // REPLACE goes to failure with its original values
+                                Map<String, Object> values = new HashMap<>();
+                                for (String field : readFields)
+                                    values.put(field, record.getValue(field));
+                                for (int i = 0; i < standardized.getDateFieldCount(); i++) {
+                                    Object invalidDate = record.getValue(standardized.getDateField(i));
+                                    if (invalidDate == null)
+                                        metrics.nullDate();
+                                    values.put(standardized.getStandardizedField(i), invalidDate == null ? null
+                                        : standardize(invalidDate.toString(), standardized.getDateField(i), standardized.getDateConverter(i), zone,
+                                            options, metrics));
+                                }
+                                writer.write(new MapRecord(standardized.getStandardizedSchema(), values));
+                            } catch (DateConversionException e) {
+                                if (failed == null)
+                                    throw e;
+                                if (failedWriter == null) {
+                                    failedWriter = writerFactory.createWriter(getLogger(), writerFactory.getSchema(originalAttributes, readSchema), failed.getOutputStream());
+                                    failedWriter.beginRecordSet();
+                                }
+                                failedWriter.write(record);
+                                failed.failed(e);
+                            }
+                            metrics.record();
+                        }
+                        WriteResult result = writer.finishRecordSet();
+                        if (failedWriter != null) {
+                            failedWriter.finishRecordSet();
+                            failedWriter.close();
+                        }
+
+                        attributes.putAll(result.getAttributes());
+                        attributes.put("record.count", String.valueOf(result.getRecordCount()));
+                        attributes.put(CoreAttributes.MIME_TYPE.key(), writer.getMimeType());
+                    }
+                } catch (SchemaNotFoundException | MalformedRecordException e) {
+                    throw new ProcessException(e);
+                }
+            }
+        });
+
+        return session.putAllAttributes(written, attributes);
+    }
+
+    /**
+     * Fails the FlowFile if the read schema has no Timezone Field, rather than
+     * silently using the Timezone property for every record.
+     */
+    private static void checkTimezoneField(RecordSchema schema, String[] timezonePath, String timezoneField) {
+        DataType type = RecordFieldType.RECORD.getRecordDataType(schema);
+        for (String name : timezonePath) {
+            RecordSchema recordSchema = null;
+            if (type instanceof RecordDataType) {
+                recordSchema = ((RecordDataType) type).getChildSchema();
+            } else if (type instanceof ChoiceDataType) {
+                for (DataType choice : ((ChoiceDataType) type).getPossibleSubTypes())
+                    if (choice instanceof RecordDataType)
+                        recordSchema = ((RecordDataType) choice).getChildSchema();
+            }
+            Optional<RecordField> field = recordSchema == null ? Optional.empty() : recordSchema.getField(name);
+            if (!field.isPresent())
+                throw new ProcessException("Timezone Field '" + timezoneField + "' is not in the record schema");
+            type = field.get().getDataType();
+        }
+    }
+
+    /** The value at the end of the Timezone Field path, or null if the record has none. */
+    private static Object timezone(Record record, String[] timezonePath) {
+        Object value = record;
+        for (String name : timezonePath) {
+            if (!(value instanceof Record))
+                return null;
+            value = ((Record) value).getValue(name);
+        }
+        return value;
+    }
+
+    private Object standardize(String invalidDate, String field, DateConverter converter, RecordTimezone zone, StandardizeOptions options,
+            ConversionMetrics metrics) {
+        final ConversionMemo memo = conversionMemo;
+        final OutputFormat output = options.getOutput();
+        try {
+            final DateConverter recordConverter = zone.converter(field, converter);
+            final Object standardized;
+            if (metrics.sample()) {
+                final long start = System.nanoTime();
+                standardized = memo == null ? output.convert(recordConverter, invalidDate) : memo.convert(recordConverter, output, invalidDate, metrics);
+                metrics.latency(System.nanoTime() - start);
+            } else {
+                standardized = memo == null ? output.convert(recordConverter, invalidDate) : memo.convert(recordConverter, output, invalidDate, metrics);
+            }
+            metrics.standardized();
+            return standardized;
+        } catch (Exception e) {
+            metrics.failure(field);
+            if (options.isNullOnFailure())
+                return null;
+            throw new DateConversionException(field, invalidDate, converter.getFormat(), zone.getTimezone(), e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.nineteen04labs.processors.standardizedate;
+
+import com.nineteen04labs.processors.util.OutputFormat;
+
+import org.apache.nifi.processor.ProcessContext;
+
+/**
+ * The Failure Policy, Output Format, Output Placement and Timezone Field
+ * properties, read once per onTrigger.
+ */
+public class StandardizeOptions {
+
+    private final String failurePolicy;
+    private final OutputFormat output;
+    private final boolean replace;
+    private final String timezoneField;
+    private final String[] timezonePath;
+
+    private StandardizeOptions(String failurePolicy, OutputFormat output, boolean replace, String timezoneField) {
+        this.failurePolicy = failurePolicy;
+        this.output = output;
+        this.replace = replace;
+        this.timezoneField = timezoneField;
+        this.timezonePath = timezoneField == null ? null : timezoneField.split("\\.");
+    }
+
+    public static StandardizeOptions of(ProcessContext context) {
+        return new StandardizeOptions(context.getProperty(StandardizeDateProperties.FAILURE_POLICY).getValue(),
+            OutputFormat.valueOf(context.getProperty(StandardizeDateProperties.OUTPUT_FORMAT).getValue()),
+            context.getProperty(StandardizeDateProperties.OUTPUT_PLACEMENT).getValue().equals("REPLACE"),
+            context.getProperty(StandardizeDateProperties.TIMEZONE_FIELD).getValue());
+    }
+
+    /** Whether records that fail go to their own FlowFile. */
+    public boolean isRouteFailedRecords() {
+        return failurePolicy.equals("RECORD");
+    }
+
+    /** Whether a date that fails is standardized to null. */
+    public boolean isNullOnFailure() {
+        return failurePolicy.equals("NULL");
+    }
+
+    public OutputFormat getOutput() {
+        return output;
+    }
+
+    /** Whether the standardized value replaces the date rather than following it. */
+    public boolean isReplace() {
+        return replace;
+    }
+
+    /** The field holding each record's timezone, or null to use the Timezone property. */
+    public String getTimezoneField() {
+        return timezoneField;
+    }
+
+    /** The field names on the way to the Timezone Field, or null if it isn't set. */
+    public String[] getTimezonePath() {
+        return timezonePath;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.nineteen04labs.processors.standardizedate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.nineteen04labs.processors.util.DateConverter;
+import com.nineteen04labs.processors.util.OutputFormat;
+
+import org.apache.nifi.serialization.SimpleRecordSchema;
+import org.apache.nifi.serialization.record.DataType;
+import org.apache.nifi.serialization.record.RecordField;
+import org.apache.nifi.serialization.record.RecordFieldType;
+import org.apache.nifi.serialization.record.RecordSchema;
+
+/**
+ * The record-oriented counterpart of {@link StandardizedSchema}: a read schema
+ * together with the schema that has a nullable "_standardized" field after
+ * each configured date field, or in place of it. Standardized fields are
+ * strings, or longs for epoch output.
+ */
+public class StandardizedRecordSchema {
+
+    private final RecordSchema standardizedSchema;
+    private final String[] dateFields;
+    private final String[] standardizedFields;
+    private final DateConverter[] dateConverters;
+
+    private StandardizedRecordSchema(RecordSchema standardizedSchema, String[] dateFields, String[] standardizedFields, DateConverter[] dateConverters) {
+        this.standardizedSchema = standardizedSchema;
+        this.dateFields = dateFields;
+        this.standardizedFields = standardizedFields;
+        this.dateConverters = dateConverters;
+    }
+
+    public static StandardizedRecordSchema derive(RecordSchema schema, InvalidDates invalidDates, OutputFormat output, boolean replace) {
+        List<RecordField> newFields = new ArrayList<>();
+        List<RecordField> dateFields = new ArrayList<>();
+        DataType type = output == OutputFormat.STRING ? RecordFieldType.STRING.getDataType() : RecordFieldType.LONG.getDataType();
+
+        for (RecordField f : schema.getFields()) {
+            if (!invalidDates.contains(f.getFieldName())) {
+                newFields.add(f);
+            } else if (replace) {
+                dateFields.add(f);
+                newFields.add(new RecordField(f.getFieldName(), type, f.getAliases(), true));
+            } else {
+                newFields.add(f);
+                dateFields.add(f);
+                newFields.add(new RecordField(f.getFieldName() + "_standardized", type, true));
+            }
+        }
+
+        String[] names = new String[dateFields.size()];
+        String[] standardizedNames = new String[dateFields.size()];
+        DateConverter[] dateConverters = new DateConverter[dateFields.size()];
+        for (int i = 0; i < dateFields.size(); i++) {
+            names[i] = dateFields.get(i).getFieldName();
+            standardizedNames[i] = replace ? names[i] : names[i] + "_standardized";
+            dateConverters[i] = invalidDates.get(names[i]);
+        }
+
+        return new StandardizedRecordSchema(new SimpleRecordSchema(newFields), names, standardizedNames, dateConverters);
+    }
+
+    public RecordSchema getStandardizedSchema() {
+        return standardizedSchema;
+    }
+
+    public int getDateFieldCount() {
+        return dateFields.length;
+    }
+
+    public String getDateField(int i) {
+        return dateFields[i];
+    }
+
+    public String getStandardizedField(int i) {
+        return standardizedFields[i];
+    }
+
+    public DateConverter getDateConverter(int i) {
+        return dateConverters[i];
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.nineteen04labs.processors.standardizedate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.nineteen04labs.processors.util.DateConverter;
+import com.nineteen04labs.processors.util.FormatStream;
+import com.nineteen04labs.processors.util.OutputFormat;
+
+import org.apache.avro.Schema;
+
+/**
+ * An input record schema together with its derived output schema, where each
+ * configured date field is either followed by its "_standardized" counterpart
+ * or replaced by it. Nested records on a configured path are derived the same
+ * way for that field alone; records, arrays and unions with no configured
+ * path below them keep their schema. A derived record keeps its name unless
+ * its type is used more than once, in which case the derived copy is named
+ * after its path so the output schema doesn't define the name twice.
+ */
+public class StandardizedSchema {
+
+    private final Schema schema;
+    private final Schema standardizedSchema;
+    private final int[] positions;
+    private final int[] datePositions;
+    private final int[] targetPositions;
+    private final DateConverter[] dateConverters;
+    private final String[] dateFields;
+    private final int[] nestedPositions;
+    private final List<Map<String, StandardizedSchema>> nested;
+
+    private StandardizedSchema(Schema schema, Schema standardizedSchema, int[] positions, int[] datePositions, int[] targetPositions,
+            DateConverter[] dateConverters, String[] dateFields, int[] nestedPositions, List<Map<String, StandardizedSchema>> nested) {
+        this.schema = schema;
+        this.standardizedSchema = standardizedSchema;
+        this.positions = positions;
+        this.datePositions = datePositions;
+        this.targetPositions = targetPositions;
+        this.dateConverters = dateConverters;
+        this.dateFields = dateFields;
+        this.nestedPositions = nestedPositions;
+        this.nested = nested;
+    }
+
+    public static StandardizedSchema derive(Schema schema, InvalidDates invalidDates) {
+        return derive(schema, invalidDates, OutputFormat.STRING, false);
+    }
+
+    public static StandardizedSchema derive(Schema schema, InvalidDates invalidDates, OutputFormat output, boolean replace) {
+        Map<String, Integer> uses = new HashMap<>();
+        countUses(schema, uses);
+        return derive(schema, schema.getName(), "", invalidDates.getPaths(), output, replace, uses);
+    }
+
+    /** Counts how many times each named record is used, descending into each one once. */
+    private static void countUses(Schema schema, Map<String, Integer> uses) {
+        switch (schema.getType()) {
+        case RECORD:
+            if (uses.merge(schema.getFullName(), 1, Integer::sum) == 1)
+                for (Schema.Field f : schema.getFields())
+                    countUses(f.schema(), uses);
+            break;
+        case ARRAY:
+            countUses(schema.getElementType(), uses);
+            break;
+        case MAP:
+            countUses(schema.getValueType(), uses);
+            break;
+        case UNION:
+            for (Schema type : schema.getTypes())
+                countUses(type, uses);
+            break;
+        default:
+            break;
+        }
+    }
+
+    private static StandardizedSchema derive(Schema schema, String name, String path, DatePaths.Node paths, OutputFormat output,
+            boolean replace, Map<String, Integer> uses) {
+        List<Schema.Field> fields = schema.getFields();
+        List<Schema.Field> newFields = new ArrayList<>();
+        int[] positions = new int[fields.size()];
+        List<Schema.Field> dateFields = new ArrayList<>();
+        List<DatePaths.Node> dateNodes = new ArrayList<>();
+        List<Integer> targets = new ArrayList<>();
+        List<Integer> nestedFields = new ArrayList<>();
+        List<Map<String, StandardizedSchema>> nested = new ArrayList<>();
+
+        for (Schema.Field f : fields) {
+            positions[f.pos()] = newFields.size();
+            DatePaths.Node node = paths.child(f.name());
+            if (node == null) {
+                newFields.add(new Schema.Field(f.name(), f.schema(), f.doc(), f.defaultVal()));
+            } else if (node.getMatch() == null) {
+                Map<String, StandardizedSchema> types = new HashMap<>();
+                Schema nestedSchema = deriveNested(f.schema(), path + "_" + f.name(), node, output, replace, uses, types);
+                if (nestedSchema != f.schema()) {
+                    nestedFields.add(f.pos());
+                    nested.add(types);
+                }
+                newFields.add(new Schema.Field(f.name(), nestedSchema, f.doc(), f.defaultVal()));
+            } else if (replace) {
+                dateFields.add(f);
+                dateNodes.add(node);
+                targets.add(newFields.size());
+                newFields.add(FormatStream.standardizedField(f.name(), output));
+            } else {
+                newFields.add(new Schema.Field(f.name(), f.schema(), f.doc(), f.defaultVal()));
+                dateFields.add(f);
+                dateNodes.add(node);
+                targets.add(newFields.size());
+                newFields.add(FormatStream.standardizedField(f.name() + "_standardized", output));
+            }
+        }
+
+        Schema standardizedSchema = Schema.createRecord(name, schema.getDoc(), schema.getNamespace(), schema.isError());
+        standardizedSchema.setFields(newFields);
+
+        int[] datePositions = new int[dateFields.size()];
+        int[] targetPositions = new int[dateFields.size()];
+        DateConverter[] dateConverters = new DateConverter[dateFields.size()];
+        String[] dateFieldNames = new String[dateFields.size()];
+        for (int i = 0; i < dateFields.size(); i++) {
+            datePositions[i] = dateFields.get(i).pos();
+            targetPositions[i] = targets.get(i);
+            dateConverters[i] = dateNodes.get(i).getMatch().getConverter();
+            dateFieldNames[i] = dateNodes.get(i).getMatch().getField();
+        }
+        int[] nestedPositions = new int[nestedFields.size()];
+        for (int i = 0; i < nestedPositions.length; i++)
+            nestedPositions[i] = nestedFields.get(i);
+
+        return new StandardizedSchema(schema, standardizedSchema, positions, datePositions, targetPositions, dateConverters,
+            dateFieldNames, nestedPositions, nested);
+    }
+
+    /**
+     * The schema of a field on a configured path with the records in it
+     * derived, or schema itself if there is nothing to standardize in it.
+     * Derived records are put in types by their input full name.
+     */
+    private static Schema deriveNested(Schema schema, String path, DatePaths.Node node, OutputFormat output, boolean replace,
+            Map<String, Integer> uses, Map<String, StandardizedSchema> types) {
+        switch (schema.getType()) {
+        case RECORD:
+            if (!node.hasChildren())
+                return schema;
+            String name = uses.get(schema.getFullName()) == 1 ? schema.getName() : uniqueName(schema, path, uses);
+            StandardizedSchema derived = derive(schema, name, path, node, output, replace, uses);
+            types.put(schema.getFullName(), derived);
+            return derived.getStandardizedSchema();
+        case ARRAY:
+            if (node.getElements() == null)
+                return schema;
+            Schema elementSchema = deriveNested(schema.getElementType(), path, node.getElements(), output, replace, uses, types);
+            return elementSchema == schema.getElementType() ? schema : Schema.createArray(elementSchema);
+        case UNION:
+            List<Schema> unionTypes = new ArrayList<>();
+            boolean changed = false;
+            for (Schema type : schema.getTypes()) {
+                Schema derivedType = deriveNested(type, path, node, output, replace, uses, types);
+                changed |= derivedType != type;
+                unionTypes.add(derivedType);
+            }
+            return changed ? Schema.createUnion(unionTypes) : schema;
+        default:
+            return schema;
+        }
+    }
+
+    /** A name for a derived copy of a reused record, such as Loc_home for the Loc at home. */
+    private static String uniqueName(Schema schema, String path, Map<String, Integer> uses) {
+        String prefix = schema.getNamespace() == null ? "" : schema.getNamespace() + ".";
+        String name = schema.getName() + path;
+        for (int i = 2; uses.containsKey(prefix + name); i++)
+            name = schema.getName() + path + "_" + i;
+        uses.put(prefix + name, 1);
+        return name;
+    }
+
+    public Schema getSchema() {
+        return schema;
+    }
+
+    public Schema getStandardizedSchema() {
+        return standardizedSchema;
+    }
+
+    /** Position in the standardized schema of the field at {@code pos} in the input schema. */
+    public int getStandardizedPosition(int pos) {
+        return positions[pos];
+    }
+
+    public int getDateFieldCount() {
+        return datePositions.length;
+    }
+
+    /** Position in the input schema of the i-th configured date field. */
+    public int getDatePosition(int i) {
+        return datePositions[i];
+    }
+
+    /** Position in the standardized schema that the i-th date field's standardized value goes to. */
+    public int getTargetPosition(int i) {
+        return targetPositions[i];
+    }
+
+    public DateConverter getDateConverter(int i) {
+        return dateConverters[i];
+    }
+
+    /** The Invalid Dates key of the i-th date field, its name or its path. */
+    public String getDateField(int i) {
+        return dateFields[i];
+    }
+
+    public int getNestedFieldCount() {
+        return nestedPositions.length;
+    }
+
+    /** Position in the input schema of the i-th field holding records to standardize. */
+    public int getNestedPosition(int i) {
+        return nestedPositions[i];
+    }
+
+    /**
+     * The derived schema for records named fullName in the i-th field holding
+     * records to standardize, or null if they're kept as they are.
+     */
+    public StandardizedSchema getNested(int i, String fullName) {
+        return nested.get(i).get(fullName);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.nineteen04labs.processors.standardizedate;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.JsonParserDelegate;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+/**
+ * Buffers each root-level JSON value before handing out its tokens, so that
+ * the record's Timezone Field, found by its path, is known before any date
+ * field that precedes it is read.
+ */
+class TimezoneFieldParser extends JsonParserDelegate {
+
+    private final JsonParser source;
+    private final String[] timezonePath;
+    private final RecordTimezone recordTimezone;
+
+    TimezoneFieldParser(JsonParser source, String[] timezonePath, RecordTimezone recordTimezone) {
+        super(source);
+        this.source = source;
+        this.timezonePath = timezonePath;
+        this.recordTimezone = recordTimezone;
+    }
+
+    @Override
+    public JsonToken nextToken() throws IOException {
+        JsonToken token = delegate == source ? null : delegate.nextToken();
+        if (token != null)
+            return token;
+
+        if (source.nextToken() == null) {
+            delegate = source;
+            return null;
+        }
+        TokenBuffer record = new TokenBuffer(source.getCodec(), false);
+        record.copyCurrentStructure(source);
+        recordTimezone.set(findTimezone(record.asParser()));
+        delegate = record.asParser();
+        return delegate.nextToken();
+    }
+
+    private String findTimezone(JsonParser record) throws IOException {
+        JsonToken value = record.nextToken();
+        for (String name : timezonePath) {
+            if (value != JsonToken.START_OBJECT)
+                return null;
+            value = null;
+            while (value == null && record.nextToken() == JsonToken.FIELD_NAME) {
+                boolean found = record.currentName().equals(name);
+                JsonToken fieldValue = record.nextToken();
+                if (found)
+                    value = fieldValue;
+                else
+                    record.skipChildren();
+            }
+            if (value == null)
+                return null;
+        }
+        return value.isScalarValue() && value != JsonToken.VALUE_NULL ? record.getText() : null;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.nineteen04labs.processors.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU memo of standardized values, keyed on the raw value, the
+ * output format and the converter (and so its format and zone). Low-cardinality date columns are
+ * then parsed once per distinct value.
+ *
+ * The memo turns itself off if its hit rate over the last {@link #WINDOW}
+ * lookups is too low to pay for the extra lookup, and turns back on for a
+ * trial window every {@link #RETRY_WINDOWS} windows, in case the data has
+ * changed.
+ */
+public class ConversionMemo {
+
+    static final int WINDOW = 10000;
+    static final double MIN_HIT_RATE = 0.2;
+    static final int RETRY_WINDOWS = 10;
+
+    private final BoundedCache<Key, Object> cache;
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong windowHits = new AtomicLong();
+    private volatile boolean enabled = true;
+
+    public ConversionMemo(int maximumSize) {
+        this.cache = new BoundedCache<>(maximumSize);
+    }
+
+    public String standardize(DateConverter converter, String dateTime) {
+        return (String) convert(converter, OutputFormat.STRING, dateTime, null);
+    }
+
+    /** As {@link OutputFormat#convert}, counting hits in {@code metrics} if it is not null. */
+    public Object convert(DateConverter converter, OutputFormat output, String dateTime, ConversionMetrics metrics) {
+        final long lookup = lookups.incrementAndGet();
+        if (!enabled) {
+            if (lookup % ((long) WINDOW * RETRY_WINDOWS) == 0) {
+                windowHits.set(0);
+                enabled = true;
+            }
+            return output.convert(converter, dateTime);
+        }
+
+        Key key = new Key(converter, output, dateTime);
+        Object standardized = cache.getIfPresent(key);
+        if (standardized != null) {
+            windowHits.incrementAndGet();
+            if (metrics != null)
+                metrics.cacheHit();
+        } else {
+            standardized = output.convert(converter, dateTime);
+            cache.put(key, standardized);
+        }
+
+        if (lookup % WINDOW == 0 && windowHits.getAndSet(0) < MIN_HIT_RATE * WINDOW) {
+            enabled = false;
+            cache.clear();
+        }
+        return standardized;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    public double getHitRate() {
+        long hits = cache.getHitCount();
+        long total = hits + cache.getMissCount();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    private static final class Key {
+
+        private final DateConverter converter;
+        private final OutputFormat output;
+        private final String dateTime;
+
+        Key(DateConverter converter, OutputFormat output, String dateTime) {
+            this.converter = converter;
+            this.output = output;
+            this.dateTime = dateTime;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Key))
+                return false;
+            Key other = (Key) o;
+            return converter == other.converter && output == other.output && dateTime.equals(other.dateTime);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * System.identityHashCode(converter) + output.ordinal()) + dateTime.hashCode();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.nineteen04labs.processors.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts for a single FlowFile: records, standardized fields, null dates,
+ * conversion cache hits, failures per field and a coarse latency histogram.
+ * Latency is sampled on every {@link #SAMPLE_INTERVAL}th conversion to keep
+ * the clock reads off most of the hot path.
+ *
+ * Not thread-safe, except for {@link #merge}, which parallel chunks use to
+ * add their own counts to the FlowFile's.
+ */
+public class ConversionMetrics {
+
+    public static final int SAMPLE_INTERVAL = 16;
+
+    private static final long[] LATENCY_BOUNDS_NANOS = {1_000L, 10_000L, 100_000L, 1_000_000L};
+    private static final String[] LATENCY_LABELS = {"< 1 us", "1-10 us", "10-100 us", "100 us-1 ms", ">= 1 ms"};
+
+    private long recordCount;
+    private long conversionCount;
+    private long fieldCount;
+    private long nullCount;
+    private long cacheHitCount;
+    private final long[] latencies = new long[LATENCY_LABELS.length];
+    private Map<String, Long> failures = Collections.emptyMap();
+
+    public void record() {
+        recordCount++;
+    }
+
+    public void nullDate() {
+        nullCount++;
+    }
+
+    public void cacheHit() {
+        cacheHitCount++;
+    }
+
+    public void failure(String field) {
+        failure(field, 1);
+    }
+
+    /** Whether the next conversion should be timed. */
+    public boolean sample() {
+        return conversionCount++ % SAMPLE_INTERVAL == 0;
+    }
+
+    public void standardized() {
+        fieldCount++;
+    }
+
+    public void latency(long nanos) {
+        int bucket = 0;
+        while (bucket < LATENCY_BOUNDS_NANOS.length && nanos >= LATENCY_BOUNDS_NANOS[bucket])
+            bucket++;
+        latencies[bucket]++;
+    }
+
+    public synchronized void merge(ConversionMetrics other) {
+        recordCount += other.recordCount;
+        conversionCount += other.conversionCount;
+        fieldCount += other.fieldCount;
+        nullCount += other.nullCount;
+        cacheHitCount += other.cacheHitCount;
+        for (int i = 0; i < latencies.length; i++)
+            latencies[i] += other.latencies[i];
+        for (Map.Entry<String, Long> e : other.failures.entrySet())
+            failure(e.getKey(), e.getValue());
+    }
+
+    private void failure(String field, long count) {
+        if (failures.isEmpty())
+            failures = new HashMap<>();
+        failures.merge(field, count, Long::sum);
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    public long getFieldCount() {
+        return fieldCount;
+    }
+
+    public long getNullCount() {
+        return nullCount;
+    }
+
+    public long getCacheHitCount() {
+        return cacheHitCount;
+    }
+
+    public Map<String, Long> getFailures() {
+        return failures;
+    }
+
+    /** Sampled conversion counts keyed by latency bucket label, in bucket order. */
+    public Map<String, Long> getLatencyHistogram() {
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < latencies.length; i++)
+            histogram.put(LATENCY_LABELS[i], latencies[i]);
+        return histogram;
+    }
+}
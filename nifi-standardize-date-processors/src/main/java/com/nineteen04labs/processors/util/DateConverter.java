@@ -0,0 +1,297 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.nineteen04labs.processors.util;
+
+import java.text.Format;
+import java.text.ParsePosition;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compiled conversion from one or more input date formats and a timezone to
+ * the standardized UTC representation. Instances are thread-safe.
+ *
+ * Formats are tried in turn without throwing for the ones that don't match.
+ * With more than one format, the order is adapted every so often so that the
+ * format that matches most often is tried first.
+ */
+public class DateConverter {
+
+    public static final String STANDARD_PATTERN = "yyyy-MM-dd HH:mm:ss.SSS";
+
+    /** A buffer this long holds any standardized date. */
+    public static final int MAX_STANDARD_LENGTH = 32;
+
+    static final int REORDER_INTERVAL = 1024;
+
+    private static final long NO_MATCH = Long.MIN_VALUE;
+
+    private static final long SECONDS_PER_DAY = 86400L;
+    private static final long DAYS_0000_TO_1970 = 719468L;
+
+    private static final DateTimeFormatter STANDARD_FORMATTER = DateTimeFormatter.ofPattern(STANDARD_PATTERN);
+
+    private final List<String> formats;
+    private final String format;
+    private final ZoneId zone;
+    private final Format[] inputFormats;
+    private final FixedWidthDateParser[] fastParsers;
+    private final DateTimeFormatter outputFormatter;
+    private final ZoneRules rules;
+    private final int fixedOffset;
+    private final ZoneOffsetTable offsetTable;
+    private final LongAdder[] matches;
+    private volatile int[] order;
+
+    public DateConverter(String format, String timezone) {
+        this(Collections.singletonList(format), timezone);
+    }
+
+    public DateConverter(List<String> formats, String timezone) {
+        if (formats.isEmpty())
+            throw new IllegalArgumentException("At least one format is required");
+
+        this.formats = Collections.unmodifiableList(new ArrayList<>(formats));
+        this.format = formats.size() == 1 ? formats.get(0) : String.join(" | ", formats);
+        this.inputFormats = new Format[formats.size()];
+        this.fastParsers = new FixedWidthDateParser[formats.size()];
+        this.order = new int[formats.size()];
+        for (int i = 0; i < formats.size(); i++) {
+            inputFormats[i] = DateTimeFormatter.ofPattern(formats.get(i)).toFormat();
+            fastParsers[i] = FixedWidthDateParser.compile(formats.get(i));
+            order[i] = i;
+        }
+        this.matches = formats.size() == 1 ? null : new LongAdder[formats.size()];
+        if (matches != null)
+            for (int i = 0; i < matches.length; i++)
+                matches[i] = new LongAdder();
+
+        this.zone = resolveZone(timezone);
+        this.outputFormatter = STANDARD_FORMATTER;
+        this.rules = zone.getRules();
+        this.fixedOffset = rules.isFixedOffset() ? rules.getOffset(Instant.EPOCH).getTotalSeconds() : Integer.MIN_VALUE;
+        this.offsetTable = rules.isFixedOffset() ? null : new ZoneOffsetTable(rules);
+    }
+
+    public String standardize(String dateTime) {
+        char[] buffer = new char[MAX_STANDARD_LENGTH];
+        return new String(buffer, 0, standardize(dateTime, buffer));
+    }
+
+    /**
+     * Writes the standardized date to the start of a buffer of at least
+     * {@link #MAX_STANDARD_LENGTH} chars, returning the number of chars written.
+     */
+    public int standardize(String dateTime, char[] buffer) {
+        return format(toEpochMicros(dateTime), buffer);
+    }
+
+    /** UTC milliseconds since the epoch, truncated toward negative infinity. */
+    public long toEpochMillis(String dateTime) {
+        return Math.floorDiv(toEpochMicros(dateTime), 1000);
+    }
+
+    /** UTC microseconds since the epoch, truncated toward negative infinity. */
+    public long toEpochMicros(String dateTime) {
+        for (int i : order) {
+            long micros = toEpochMicros(i, dateTime);
+            if (micros != NO_MATCH) {
+                if (matches != null)
+                    matched(i);
+                return micros;
+            }
+        }
+        throw new DateTimeParseException("Text '" + dateTime + "' could not be parsed with '" + format + "'", dateTime, 0);
+    }
+
+    /** Converts with the i-th format, returning NO_MATCH if it doesn't match. */
+    private long toEpochMicros(int i, String dateTime) {
+        FixedWidthDateParser fastParser = fastParsers[i];
+        if (fastParser != null) {
+            long localEpochSecond = fastParser.parseLocalEpochSecond(dateTime);
+            if (localEpochSecond != FixedWidthDateParser.NO_MATCH)
+                return toMicros(toUtcEpochSecond(localEpochSecond), fastParser.parseNano(dateTime));
+        }
+
+        // the formatter's Format parses and resolves in one pass, and reports
+        // a mismatch through the ParsePosition instead of throwing
+        ParsePosition position = new ParsePosition(0);
+        TemporalAccessor parsed = (TemporalAccessor) inputFormats[i].parseObject(dateTime, position);
+        if (parsed == null || position.getIndex() != dateTime.length())
+            return NO_MATCH;
+
+        LocalDate date;
+        LocalTime time;
+        try {
+            date = parsed.query(TemporalQueries.localDate());
+            time = parsed.query(TemporalQueries.localTime());
+        } catch (DateTimeException e) {
+            return NO_MATCH;
+        }
+        if (date == null)
+            return NO_MATCH;
+
+        LocalDateTime localDT = time == null ? date.atStartOfDay() : date.atTime(time);
+        return toMicros(toUtcEpochSecond(localDT.toEpochSecond(ZoneOffset.UTC)), localDT.getNano());
+    }
+
+    private static long toMicros(long epochSecond, int nano) {
+        return epochSecond * 1_000_000 + nano / 1000;
+    }
+
+    private void matched(int i) {
+        matches[i].increment();
+        if (ThreadLocalRandom.current().nextInt(REORDER_INTERVAL) == 0)
+            reorder();
+    }
+
+    /** Sorts the formats by match count, most frequent first; ties keep their configured order. */
+    void reorder() {
+        long[] counts = new long[matches.length];
+        int[] newOrder = new int[matches.length];
+        for (int i = 0; i < matches.length; i++) {
+            counts[i] = matches[i].sum();
+            newOrder[i] = i;
+        }
+        for (int i = 1; i < newOrder.length; i++) {
+            int candidate = newOrder[i];
+            int j = i - 1;
+            while (j >= 0 && counts[newOrder[j]] < counts[candidate]) {
+                newOrder[j + 1] = newOrder[j];
+                j--;
+            }
+            newOrder[j + 1] = candidate;
+        }
+        order = newOrder;
+    }
+
+    /**
+     * Converts local seconds to UTC the same way {@code ZonedDateTime.of} does:
+     * times in a gap use the offset before the gap and times in an overlap use
+     * the earlier offset. Dates outside the {@link ZoneOffsetTable} fall back
+     * to the zone rules.
+     */
+    private long toUtcEpochSecond(long localEpochSecond) {
+        if (fixedOffset != Integer.MIN_VALUE)
+            return localEpochSecond - fixedOffset;
+
+        long utcEpochSecond = offsetTable.toUtcEpochSecond(localEpochSecond);
+        if (utcEpochSecond != ZoneOffsetTable.NO_MATCH)
+            return utcEpochSecond;
+
+        LocalDateTime localDT = LocalDateTime.ofEpochSecond(localEpochSecond, 0, ZoneOffset.UTC);
+        List<ZoneOffset> validOffsets = rules.getValidOffsets(localDT);
+        if (validOffsets.size() == 1)
+            return localEpochSecond - validOffsets.get(0).getTotalSeconds();
+
+        ZoneOffsetTransition transition = rules.getTransition(localDT);
+        return localEpochSecond - transition.getOffsetBefore().getTotalSeconds();
+    }
+
+    /**
+     * Writes {@link #STANDARD_PATTERN} digit by digit. Years outside 1-9999,
+     * which the pattern prints with a sign or as a year of era, go through
+     * the formatter instead.
+     */
+    private int format(long epochMicros, char[] buffer) {
+        long epochSecond = Math.floorDiv(epochMicros, 1_000_000);
+        int millis = (int) (Math.floorMod(epochMicros, 1_000_000L) / 1000);
+        long epochDay = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+        int secondOfDay = (int) Math.floorMod(epochSecond, SECONDS_PER_DAY);
+
+        // civil date from days, in 400-year eras starting on March 1st
+        long days = epochDay + DAYS_0000_TO_1970;
+        long era = Math.floorDiv(days, 146097);
+        long dayOfEra = days - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int shiftedMonth = (int) ((5 * dayOfYear + 2) / 153);
+        int day = (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+        int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        if (year < 1 || year > 9999) {
+            String formatted = LocalDateTime.ofEpochSecond(epochSecond, millis * 1_000_000, ZoneOffset.UTC).format(outputFormatter);
+            formatted.getChars(0, formatted.length(), buffer, 0);
+            return formatted.length();
+        }
+
+        putDigits(buffer, 0, (int) year, 4);
+        buffer[4] = '-';
+        putDigits(buffer, 5, month, 2);
+        buffer[7] = '-';
+        putDigits(buffer, 8, day, 2);
+        buffer[10] = ' ';
+        putDigits(buffer, 11, secondOfDay / 3600, 2);
+        buffer[13] = ':';
+        putDigits(buffer, 14, secondOfDay / 60 % 60, 2);
+        buffer[16] = ':';
+        putDigits(buffer, 17, secondOfDay % 60, 2);
+        buffer[19] = '.';
+        putDigits(buffer, 20, millis, 3);
+        return 23;
+    }
+
+    private static void putDigits(char[] buffer, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    /** The format, or the formats separated by " | " if there are several. */
+    public String getFormat() {
+        return format;
+    }
+
+    public List<String> getFormats() {
+        return formats;
+    }
+
+    /** The formats in the order they are currently tried. */
+    List<String> getFormatOrder() {
+        List<String> ordered = new ArrayList<>();
+        for (int i : order)
+            ordered.add(formats.get(i));
+        return ordered;
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    private static ZoneId resolveZone(String timezone) {
+        String shortId = ZoneId.SHORT_IDS.get(timezone.toUpperCase());
+        return ZoneId.of(shortId != null ? shortId : timezone);
+    }
+}
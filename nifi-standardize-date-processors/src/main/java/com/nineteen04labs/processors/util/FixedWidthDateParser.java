@@ -0,0 +1,262 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.nineteen04labs.processors.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Allocation-free parser for fixed-width, all-numeric date patterns such as
+ * {@code MM/dd/yy}, {@code yyyyMMdd} or {@code MM/dd/yyyy HH:mm:ss}. Digits
+ * are read straight from the input into primitive fields and converted to
+ * local epoch seconds.
+ *
+ * The parser only accepts input whose fields are strictly valid. Anything
+ * else is reported as {@link #NO_MATCH} so the caller can fall back to
+ * {@code DateTimeFormatter}, which keeps results identical to it.
+ */
+public class FixedWidthDateParser {
+
+    public static final long NO_MATCH = Long.MIN_VALUE;
+
+    private static final int YEAR_2 = 0;
+    private static final int YEAR_4 = 1;
+    private static final int MONTH = 2;
+    private static final int DAY = 3;
+    private static final int HOUR = 4;
+    private static final int MINUTE = 5;
+    private static final int SECOND = 6;
+    private static final int FRACTION = 7;
+
+    private static final long SECONDS_PER_DAY = 86400L;
+    private static final long DAYS_0000_TO_1970 = 719528L;
+    private static final int[] NANO_SCALE = {0, 100000000, 10000000, 1000000, 100000, 10000, 1000, 100, 10, 1};
+
+    private final int length;
+    private final int[] kinds;
+    private final int[] offsets;
+    private final int[] widths;
+    private final int[] literalOffsets;
+    private final char[] literals;
+    private final int fractionOffset;
+    private final int fractionWidth;
+
+    private FixedWidthDateParser(int length, List<int[]> fields, List<int[]> literals) {
+        this.length = length;
+        this.kinds = new int[fields.size()];
+        this.offsets = new int[fields.size()];
+        this.widths = new int[fields.size()];
+        int fractionOffset = -1;
+        int fractionWidth = 0;
+        for (int i = 0; i < fields.size(); i++) {
+            int[] field = fields.get(i);
+            kinds[i] = field[0];
+            offsets[i] = field[1];
+            widths[i] = field[2];
+            if (field[0] == FRACTION) {
+                fractionOffset = field[1];
+                fractionWidth = field[2];
+            }
+        }
+        this.fractionOffset = fractionOffset;
+        this.fractionWidth = fractionWidth;
+        this.literalOffsets = new int[literals.size()];
+        this.literals = new char[literals.size()];
+        for (int i = 0; i < literals.size(); i++) {
+            literalOffsets[i] = literals.get(i)[0];
+            this.literals[i] = (char) literals.get(i)[1];
+        }
+    }
+
+    /**
+     * Returns a parser for the pattern, or null if the pattern is not one of
+     * the supported fixed-width numeric layouts.
+     */
+    public static FixedWidthDateParser compile(String pattern) {
+        List<int[]> fields = new ArrayList<>();
+        List<int[]> literals = new ArrayList<>();
+        boolean[] seen = new boolean[FRACTION + 1];
+        int pos = 0;
+        int i = 0;
+
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                int end = pattern.indexOf('\'', i + 1);
+                if (end < 0 || end == i + 1)
+                    return null;
+                for (int j = i + 1; j < end; j++)
+                    literals.add(new int[] {pos++, pattern.charAt(j)});
+                i = end + 1;
+            } else if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+                int count = 1;
+                while (i + count < pattern.length() && pattern.charAt(i + count) == c)
+                    count++;
+                int kind = kindOf(c, count);
+                if (kind < 0 || seen[kind])
+                    return null;
+                seen[kind] = true;
+                fields.add(new int[] {kind, pos, count});
+                pos += count;
+                i += count;
+            } else if (c == '[' || c == ']' || c == '{' || c == '}' || c == '#') {
+                return null;
+            } else {
+                literals.add(new int[] {pos++, c});
+                i++;
+            }
+        }
+
+        boolean hasYear = seen[YEAR_2] ^ seen[YEAR_4];
+        if (!hasYear || !seen[MONTH] || !seen[DAY])
+            return null;
+        // The same combinations DateTimeFormatter's resolver turns into a time of day
+        if ((seen[MINUTE] && !seen[HOUR]) || (seen[SECOND] && !seen[MINUTE]) || (seen[FRACTION] && !seen[SECOND]))
+            return null;
+
+        return new FixedWidthDateParser(pos, fields, literals);
+    }
+
+    private static int kindOf(char c, int count) {
+        switch (c) {
+            case 'y':
+                return count == 2 ? YEAR_2 : count == 4 ? YEAR_4 : -1;
+            case 'M':
+                return count == 2 ? MONTH : -1;
+            case 'd':
+                return count == 2 ? DAY : -1;
+            case 'H':
+                return count == 2 ? HOUR : -1;
+            case 'm':
+                return count == 2 ? MINUTE : -1;
+            case 's':
+                return count == 2 ? SECOND : -1;
+            case 'S':
+                return count <= 9 ? FRACTION : -1;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Parses the input to seconds since the epoch in local time, or returns
+     * {@link #NO_MATCH} if the input does not strictly match the pattern.
+     */
+    public long parseLocalEpochSecond(CharSequence text) {
+        if (text.length() != length)
+            return NO_MATCH;
+        for (int i = 0; i < literals.length; i++) {
+            if (text.charAt(literalOffsets[i]) != literals[i])
+                return NO_MATCH;
+        }
+
+        int year = 0;
+        int month = 0;
+        int day = 0;
+        int hour = 0;
+        int minute = 0;
+        int second = 0;
+        for (int i = 0; i < kinds.length; i++) {
+            int value = digits(text, offsets[i], widths[i]);
+            if (value < 0)
+                return NO_MATCH;
+            switch (kinds[i]) {
+                case YEAR_2:
+                    year = 2000 + value;
+                    break;
+                case YEAR_4:
+                    year = value;
+                    break;
+                case MONTH:
+                    month = value;
+                    break;
+                case DAY:
+                    day = value;
+                    break;
+                case HOUR:
+                    hour = value;
+                    break;
+                case MINUTE:
+                    minute = value;
+                    break;
+                case SECOND:
+                    second = value;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour > 23 || minute > 59 || second > 59)
+            return NO_MATCH;
+
+        return epochDay(year, month, day) * SECONDS_PER_DAY + hour * 3600 + minute * 60 + second;
+    }
+
+    /**
+     * Returns the nano-of-second of input already accepted by
+     * {@link #parseLocalEpochSecond(CharSequence)}.
+     */
+    public int parseNano(CharSequence text) {
+        if (fractionOffset < 0)
+            return 0;
+        return digits(text, fractionOffset, fractionWidth) * NANO_SCALE[fractionWidth];
+    }
+
+    private static int digits(CharSequence text, int offset, int width) {
+        int value = 0;
+        for (int i = offset; i < offset + width; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9)
+                return -1;
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static boolean isLeapYear(long year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /** Same arithmetic as {@code LocalDate.toEpochDay()} for positive years. */
+    private static long epochDay(long year, long month, long day) {
+        long total = 365 * year + (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (!isLeapYear(year))
+                total--;
+        }
+        return total - DAYS_0000_TO_1970;
+    }
+}
@@ -16,15 +16,20 @@
  */
 package com.nineteen04labs.processors.util;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.PipedInputStream;
-import java.io.PipedOutputStream;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
+import org.apache.avro.JsonProperties;
+import org.apache.avro.LogicalTypes;
 import org.apache.avro.Schema;
 import org.apache.avro.file.CodecFactory;
+import org.apache.avro.file.DataFileConstants;
 import org.apache.avro.file.DataFileStream;
 import org.apache.avro.file.DataFileWriter;
 import org.apache.avro.generic.ExtendedGenericDatumWriter;
@@ -35,19 +40,16 @@ import org.apache.avro.io.DatumWriter;
 import org.apache.avro.io.Decoder;
 import org.apache.avro.io.ExtendedJsonDecoder;
 import org.apache.avro.io.ExtendedJsonEncoder;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.apache.avro.util.Utf8;
 
 public class FormatStream {
 
-    private static final Logger logger = LoggerFactory.getLogger(FormatStream.class);
-    
     public static InputStream avroToJson(InputStream in, Schema schema) throws IOException {
         DatumReader<Object> reader = new GenericDatumReader<Object>();
         DataFileStream<Object> streamReader = new DataFileStream<Object>(in, reader);
         DatumWriter<Object> writer = new ExtendedGenericDatumWriter<>(schema);
 
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        HandoffOutputStream baos = new HandoffOutputStream();
         ExtendedJsonEncoder encoder = new ExtendedJsonEncoder(schema, baos);
 
         for (Object datum : streamReader)
@@ -62,7 +64,7 @@ public class FormatStream {
 
     public static ByteArrayOutputStream jsonToAvro(ByteArrayOutputStream jsonStream, Schema schema) throws IOException {
         InputStream input = convertStream(jsonStream);
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        HandoffOutputStream baos = new HandoffOutputStream();
 
         DatumReader<Object> reader = new GenericDatumReader<Object>(schema);
         DataFileWriter<Object> writer = new DataFileWriter<Object>(new GenericDatumWriter<Object>());
@@ -87,6 +89,33 @@ public class FormatStream {
         return baos;
     }
 
+    /**
+     * The codec with an Avro codec name (null, deflate, snappy, bzip2 or xz)
+     * and, for deflate and xz, an optional compression level.
+     */
+    public static CodecFactory codec(String name, Integer level) {
+        switch (name) {
+            case DataFileConstants.NULL_CODEC:
+                return CodecFactory.nullCodec();
+            case DataFileConstants.DEFLATE_CODEC:
+                return CodecFactory.deflateCodec(level == null ? CodecFactory.DEFAULT_DEFLATE_LEVEL : level);
+            case DataFileConstants.XZ_CODEC:
+                return CodecFactory.xzCodec(level == null ? CodecFactory.DEFAULT_XZ_LEVEL : level);
+            default:
+                return CodecFactory.fromString(name);
+        }
+    }
+
+    /** Copies ASCII chars, such as a standardized date, into a reused Utf8. */
+    public static Utf8 toUtf8(CharBuffer chars, Utf8 utf8) {
+        final int length = chars.remaining();
+        utf8.setByteLength(length);
+        final byte[] bytes = utf8.getBytes();
+        for (int i = 0; i < length; i++)
+            bytes[i] = (byte) chars.get(chars.position() + i);
+        return utf8;
+    }
+
     public static Schema getEmbeddedSchema(InputStream in) throws IOException {
         DatumReader<Object> reader = new GenericDatumReader<Object>();
         DataFileStream<Object> streamReader = new DataFileStream<Object>(in, reader);
@@ -95,23 +124,37 @@ public class FormatStream {
         return streamReader.getSchema();
 }
 
-    private static InputStream convertStream(ByteArrayOutputStream baos) throws IOException {
-        PipedInputStream pin = new PipedInputStream();
-        PipedOutputStream pout = new PipedOutputStream(pin);
-
-        new Thread(
-            new Runnable() {
-                public void run() {
-                    try {
-                        baos.writeTo(pout);
-                        pout.close();
-                    } catch (IOException e) {
-                        logger.error(e.getMessage());
-                    }
-                }
-            }
-        ).start();
+    /**
+     * A field for standardized values. It is always nullable, since null dates
+     * and the NULL failure policy write null whether or not the date field
+     * allows it. Epoch values are a long with a timestamp-millis or
+     * timestamp-micros logical type.
+     */
+    public static Schema.Field standardizedField(String name, OutputFormat output) {
+        Schema value = Schema.create(output == OutputFormat.STRING ? Schema.Type.STRING : Schema.Type.LONG);
+        if (output == OutputFormat.EPOCH_MILLIS)
+            LogicalTypes.timestampMillis().addToSchema(value);
+        else if (output == OutputFormat.EPOCH_MICROS)
+            LogicalTypes.timestampMicros().addToSchema(value);
+        List<Schema> unionSchema = new ArrayList<>();
+        unionSchema.add(Schema.create(Schema.Type.NULL));
+        unionSchema.add(value);
+        return new Schema.Field(name, Schema.createUnion(unionSchema), null, JsonProperties.NULL_VALUE);
+    }
+
+    private static InputStream convertStream(ByteArrayOutputStream baos) {
+        if (baos instanceof HandoffOutputStream)
+            return ((HandoffOutputStream) baos).toInputStream();
+        return new ByteArrayInputStream(baos.toByteArray());
+    }
 
-        return pin;
+    /**
+     * Hands its internal buffer to the reading side without copying it.
+     */
+    private static class HandoffOutputStream extends ByteArrayOutputStream {
+
+        InputStream toInputStream() {
+            return new ByteArrayInputStream(buf, 0, count);
+        }
     }
 }
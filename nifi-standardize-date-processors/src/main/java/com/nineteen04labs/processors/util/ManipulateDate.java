@@ -16,42 +16,60 @@
  */
 package com.nineteen04labs.processors.util;
 
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.time.ZoneOffset;
-import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
 
 public class ManipulateDate {
 
+    private static final int CONVERTER_CACHE_SIZE = 1024;
+
+    private static final BoundedCache<ConverterKey, DateConverter> converters = new BoundedCache<>(CONVERTER_CACHE_SIZE);
+
     public static String standardize(String dateTime, String format, String timezone) {
-        DateTimeFormatter dtFormat = null;
-        try {
-            dtFormat = DateTimeFormatter.ofPattern(format);
-        } catch (DateTimeParseException e) {
-            e.printStackTrace();
-        }
+        return getConverter(format, timezone).standardize(dateTime);
+    }
 
-        LocalDateTime localDT = null;
-        try {
-            localDT = LocalDateTime.parse(dateTime, dtFormat);
-        } catch (DateTimeParseException e) {
-            localDT = LocalDate.parse(dateTime, dtFormat).atStartOfDay();
-        }
-        
-        ZoneId localZone = null;
-        try {
-            localZone = ZoneId.of(ZoneId.SHORT_IDS.get(timezone.toUpperCase()));
-        } catch (NullPointerException e) {
-            localZone = ZoneId.of(timezone);
-        }
+    public static DateConverter getConverter(String format, String timezone) {
+        return getConverter(Collections.singletonList(format), timezone);
+    }
+
+    /** A converter that tries each of the formats, see {@link DateConverter}. */
+    public static DateConverter getConverter(List<String> formats, String timezone) {
+        return converters.get(new ConverterKey(formats, timezone), key -> new DateConverter(key.formats, key.timezone));
+    }
 
-        ZonedDateTime localZonedDT = ZonedDateTime.of(localDT, localZone);
-        ZonedDateTime standardizedDT = localZonedDT.withZoneSameInstant(ZoneOffset.UTC);
+    public static long getConverterCacheHits() {
+        return converters.getHitCount();
+    }
 
-        return standardizedDT.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS"));
+    public static long getConverterCacheMisses() {
+        return converters.getMissCount();
     }
 
+    private static final class ConverterKey {
+
+        private final List<String> formats;
+        private final String timezone;
+
+        ConverterKey(List<String> formats, String timezone) {
+            this.formats = formats;
+            this.timezone = timezone;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof ConverterKey))
+                return false;
+            ConverterKey other = (ConverterKey) o;
+            return formats.equals(other.formats) && Objects.equals(timezone, other.timezone);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(formats, timezone);
+        }
+    }
 }
@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.nineteen04labs.processors.util;
+
+/**
+ * The representation of a standardized date: the formatted UTC string or the
+ * number of milliseconds or microseconds since the epoch.
+ */
+public enum OutputFormat {
+
+    STRING {
+        @Override
+        public Object convert(DateConverter converter, String dateTime) {
+            return converter.standardize(dateTime);
+        }
+    },
+    EPOCH_MILLIS {
+        @Override
+        public Object convert(DateConverter converter, String dateTime) {
+            return converter.toEpochMillis(dateTime);
+        }
+    },
+    EPOCH_MICROS {
+        @Override
+        public Object convert(DateConverter converter, String dateTime) {
+            return converter.toEpochMicros(dateTime);
+        }
+    };
+
+    /** A String for {@link #STRING}, otherwise a Long. */
+    public abstract Object convert(DateConverter converter, String dateTime);
+}
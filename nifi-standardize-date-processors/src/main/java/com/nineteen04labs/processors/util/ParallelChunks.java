@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.nineteen04labs.processors.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import org.apache.nifi.processor.exception.ProcessException;
+
+/**
+ * Splits newline-delimited content into chunks on line boundaries, processes
+ * the chunks on a fork/join pool and writes the results back in their
+ * original order, along with anything else a chunk leaves to be done in
+ * order. At most {@code maxInFlight} chunks are held in memory.
+ */
+public class ParallelChunks {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    public interface ChunkProcessor {
+        /** Processes a chunk, returning what to do once its output is written, in chunk order, or null. */
+        Runnable process(InputStream in, OutputStream out) throws IOException;
+    }
+
+    public static void process(InputStream in, OutputStream out, ForkJoinPool pool, int maxInFlight, int chunkSize,
+            ChunkProcessor processor) throws IOException {
+        Deque<ForkJoinTask<Chunk>> inFlight = new ArrayDeque<>();
+        boolean completed = false;
+        try {
+            byte[] buffer = new byte[chunkSize];
+            int length = 0;
+            int read;
+            while ((read = in.read(buffer, length, buffer.length - length)) != -1) {
+                length += read;
+                if (length < buffer.length)
+                    continue;
+
+                int end = lastNewline(buffer, length);
+                if (end < 0) {
+                    // A single line longer than the chunk size
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                    continue;
+                }
+                submit(Arrays.copyOf(buffer, end + 1), inFlight, out, pool, maxInFlight, processor);
+                length -= end + 1;
+                System.arraycopy(buffer, end + 1, buffer, 0, length);
+            }
+            if (length > 0)
+                submit(Arrays.copyOf(buffer, length), inFlight, out, pool, maxInFlight, processor);
+
+            while (!inFlight.isEmpty())
+                writeNext(inFlight, out);
+            completed = true;
+        } finally {
+            if (!completed) {
+                for (ForkJoinTask<Chunk> task : inFlight)
+                    task.cancel(true);
+            }
+        }
+    }
+
+    private static void submit(byte[] chunk, Deque<ForkJoinTask<Chunk>> inFlight, OutputStream out, ForkJoinPool pool,
+            int maxInFlight, ChunkProcessor processor) throws IOException {
+        while (inFlight.size() >= maxInFlight)
+            writeNext(inFlight, out);
+
+        inFlight.addLast(pool.submit(() -> {
+            ByteArrayOutputStream chunkOut = new ByteArrayOutputStream(chunk.length + chunk.length / 2);
+            Runnable written = processor.process(new ByteArrayInputStream(chunk), chunkOut);
+            return new Chunk(chunkOut.toByteArray(), written);
+        }));
+    }
+
+    private static void writeNext(Deque<ForkJoinTask<Chunk>> inFlight, OutputStream out) throws IOException {
+        try {
+            Chunk chunk = inFlight.removeFirst().get();
+            out.write(chunk.output);
+            if (chunk.written != null)
+                chunk.written.run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProcessException("Interrupted while waiting for a chunk", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ProcessException)
+                throw (ProcessException) cause;
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+            throw new ProcessException(cause);
+        }
+    }
+
+    private static final class Chunk {
+
+        private final byte[] output;
+        private final Runnable written;
+
+        Chunk(byte[] output, Runnable written) {
+            this.output = output;
+            this.written = written;
+        }
+    }
+
+    private static int lastNewline(byte[] buffer, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (buffer[i] == '\n')
+                return i;
+        }
+        return -1;
+    }
+}
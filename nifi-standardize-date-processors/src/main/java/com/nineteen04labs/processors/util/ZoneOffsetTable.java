@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.nineteen04labs.processors.util;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The offset transitions of a zone between {@link #MIN_YEAR} and
+ * {@link #MAX_YEAR}, flattened into primitive arrays so that local epoch
+ * seconds convert to UTC with one binary search and no allocation.
+ *
+ * Each transition i has a local boundary: the later of the local times just
+ * before and just after it. Local times below the boundary use the offset
+ * before the transition, which is how {@code ZonedDateTime.of} resolves both
+ * gaps and overlaps. Local times outside the table return {@link #NO_MATCH}.
+ */
+public class ZoneOffsetTable {
+
+    public static final long NO_MATCH = Long.MIN_VALUE;
+
+    static final int MIN_YEAR = 1900;
+    static final int MAX_YEAR = 2100;
+
+    private static final long MAX_OFFSET_SECONDS = 18 * 3600;
+
+    private final long minLocal;
+    private final long maxLocal;
+    private final long[] boundaries;
+    private final int[] offsets;
+
+    public ZoneOffsetTable(ZoneRules rules) {
+        this.minLocal = LocalDateTime.of(MIN_YEAR, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+        this.maxLocal = LocalDateTime.of(MAX_YEAR, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+
+        // every transition whose local boundary can fall in [minLocal, maxLocal)
+        Instant start = Instant.ofEpochSecond(minLocal - MAX_OFFSET_SECONDS);
+        Instant end = Instant.ofEpochSecond(maxLocal + MAX_OFFSET_SECONDS);
+        List<ZoneOffsetTransition> transitions = new ArrayList<>();
+        for (ZoneOffsetTransition t = rules.nextTransition(start); t != null && t.getInstant().isBefore(end); t = rules.nextTransition(t.getInstant()))
+            transitions.add(t);
+
+        this.boundaries = new long[transitions.size()];
+        this.offsets = new int[transitions.size() + 1];
+        offsets[0] = rules.getOffset(start).getTotalSeconds();
+        for (int i = 0; i < transitions.size(); i++) {
+            ZoneOffsetTransition t = transitions.get(i);
+            int before = t.getOffsetBefore().getTotalSeconds();
+            int after = t.getOffsetAfter().getTotalSeconds();
+            boundaries[i] = t.getInstant().getEpochSecond() + Math.max(before, after);
+            offsets[i + 1] = after;
+        }
+    }
+
+    /** UTC epoch seconds of the local epoch seconds, or NO_MATCH outside the table. */
+    public long toUtcEpochSecond(long localEpochSecond) {
+        if (localEpochSecond < minLocal || localEpochSecond >= maxLocal)
+            return NO_MATCH;
+
+        int i = Arrays.binarySearch(boundaries, localEpochSecond);
+        return localEpochSecond - offsets[i >= 0 ? i + 1 : -i - 1];
+    }
+
+    /** The number of transitions in the table. */
+    int size() {
+        return boundaries.length;
+    }
+}
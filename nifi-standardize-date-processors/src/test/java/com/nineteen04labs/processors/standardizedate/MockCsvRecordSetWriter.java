@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.nineteen04labs.processors.standardizedate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+
+import org.apache.nifi.controller.AbstractControllerService;
+import org.apache.nifi.logging.ComponentLog;
+import org.apache.nifi.serialization.RecordSetWriter;
+import org.apache.nifi.serialization.RecordSetWriterFactory;
+import org.apache.nifi.serialization.WriteResult;
+import org.apache.nifi.serialization.record.Record;
+import org.apache.nifi.serialization.record.RecordSchema;
+import org.apache.nifi.serialization.record.RecordSet;
+
+/**
+ * Writes records as comma-separated lines with a header row, inheriting the
+ * schema it is given. Null values are written as empty strings.
+ */
+public class MockCsvRecordSetWriter extends AbstractControllerService implements RecordSetWriterFactory {
+
+    @Override
+    public RecordSchema getSchema(Map<String, String> variables, RecordSchema readSchema) {
+        return readSchema;
+    }
+
+    @Override
+    public RecordSetWriter createWriter(ComponentLog logger, RecordSchema schema, OutputStream out) {
+        final Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+
+        return new RecordSetWriter() {
+            private int recordCount;
+
+            @Override
+            public void beginRecordSet() throws IOException {
+                writer.write(String.join(",", schema.getFieldNames()));
+                writer.write("\n");
+            }
+
+            @Override
+            public WriteResult write(Record record) throws IOException {
+                final String[] values = new String[schema.getFieldCount()];
+                for (int i = 0; i < values.length; i++)
+                    values[i] = record.getAsString(schema.getField(i).getFieldName());
+                writer.write(String.join(",", values).replace("null", ""));
+                writer.write("\n");
+                recordCount++;
+                return WriteResult.of(1, Collections.emptyMap());
+            }
+
+            @Override
+            public WriteResult write(RecordSet recordSet) throws IOException {
+                Record record;
+                while ((record = recordSet.next()) != null)
+                    write(record);
+                return finishRecordSet();
+            }
+
+            @Override
+            public WriteResult finishRecordSet() throws IOException {
+                writer.flush();
+                return WriteResult.of(recordCount, Collections.emptyMap());
+            }
+
+            @Override
+            public String getMimeType() {
+                return "text/csv";
+            }
+
+            @Override
+            public void flush() throws IOException {
+                writer.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                writer.flush();
+            }
+        };
+    }
+}
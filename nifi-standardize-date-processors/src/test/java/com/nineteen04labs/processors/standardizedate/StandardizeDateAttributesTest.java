@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.nineteen04labs.processors.standardizedate;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.nifi.util.MockFlowFile;
+import org.apache.nifi.util.TestRunner;
+import org.apache.nifi.util.TestRunners;
+import org.junit.Test;
+
+public class StandardizeDateAttributesTest {
+
+    private final TestRunner runner = TestRunners.newTestRunner(new StandardizeDate());
+
+    @Test
+    public void testStandardization() {
+        runner.setProperty(StandardizeDateProperties.FLOW_FORMAT, "ATTRIBUTES");
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"event.time\":\"MM/dd/yy\",\"missing.time\":\"MM/dd/yy\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("event.time", "10/28/18");
+        runner.enqueue("content", attributes);
+
+        runner.run();
+        runner.assertQueueEmpty();
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_SUCCESS, 1);
+
+        final MockFlowFile outFile = runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS).get(0);
+
+        outFile.assertContentEquals("content");
+        outFile.assertAttributeEquals("event.time", "10/28/18");
+        outFile.assertAttributeEquals("event.time_standardized", "2018-10-28 05:00:00.000");
+        outFile.assertAttributeNotExists("missing.time_standardized");
+        outFile.assertAttributeEquals("standardize.record.count", "1");
+    }
+
+    @Test
+    public void testMixedCaseAttribute() {
+        runner.setProperty(StandardizeDateProperties.FLOW_FORMAT, "ATTRIBUTES");
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"eventTime\":\"MM/dd/yy\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("eventTime", "10/28/18");
+        runner.enqueue("content", attributes);
+
+        runner.run();
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_SUCCESS, 1);
+
+        final MockFlowFile outFile = runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS).get(0);
+
+        outFile.assertAttributeEquals("eventTime_standardized", "2018-10-28 05:00:00.000");
+        outFile.assertAttributeNotExists("eventtime_standardized");
+    }
+
+    @Test
+    public void testAttributeNamesArentPaths() {
+        runner.setProperty(StandardizeDateProperties.FLOW_FORMAT, "ATTRIBUTES");
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"kafka\":\"MM/dd/yy\",\"kafka.ts\":\"MM/dd/yy\",\"batch[]\":\"MM/dd/yy\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("kafka", "10/28/18");
+        attributes.put("kafka.ts", "10/28/18");
+        attributes.put("batch[]", "10/28/18");
+        runner.enqueue("content", attributes);
+
+        runner.run();
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_SUCCESS, 1);
+
+        final MockFlowFile outFile = runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS).get(0);
+
+        outFile.assertAttributeEquals("kafka_standardized", "2018-10-28 05:00:00.000");
+        outFile.assertAttributeEquals("kafka.ts_standardized", "2018-10-28 05:00:00.000");
+        outFile.assertAttributeEquals("batch[]_standardized", "2018-10-28 05:00:00.000");
+    }
+
+    @Test
+    public void testEpochMillisReplace() {
+        runner.setProperty(StandardizeDateProperties.FLOW_FORMAT, "ATTRIBUTES");
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"event.time\":\"MM/dd/yy\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+        runner.setProperty(StandardizeDateProperties.OUTPUT_FORMAT, "EPOCH_MILLIS");
+        runner.setProperty(StandardizeDateProperties.OUTPUT_PLACEMENT, "REPLACE");
+
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("event.time", "10/28/18");
+        runner.enqueue("content", attributes);
+
+        runner.run();
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_SUCCESS, 1);
+
+        final MockFlowFile outFile = runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS).get(0);
+
+        outFile.assertAttributeEquals("event.time", "1540702800000");
+        outFile.assertAttributeNotExists("event.time_standardized");
+    }
+
+    @Test
+    public void testInvalidDate() {
+        runner.setProperty(StandardizeDateProperties.FLOW_FORMAT, "ATTRIBUTES");
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"event.time\":\"MM/dd/yy\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+        runner.setProperty(StandardizeDateProperties.FAILURE_POLICY, "RECORD");
+
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("event.time", "not a date");
+        runner.enqueue("content", attributes);
+
+        runner.run();
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_FAILURE, 1);
+        assertEquals(1, runner.getCounterValue("Failures on event.time").longValue());
+    }
+}
@@ -16,11 +16,26 @@
  */
 package com.nineteen04labs.processors.standardizedate;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
+import org.apache.avro.Schema;
+import org.apache.avro.file.DataFileStream;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
 import org.apache.commons.io.FileUtils;
 import org.apache.nifi.util.MockFlowFile;
 import org.apache.nifi.util.TestRunner;
@@ -67,6 +82,52 @@ public class StandardizeDateAvroTest {
         runner.run();
         runner.assertQueueEmpty();
         runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_SUCCESS, 1);
+
+        final MockFlowFile outFile = runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS).get(0);
+        final List<GenericRecord> records = readRecords(outFile);
+
+        assertEquals(2, records.size());
+        assertEquals("bad_date_standardized", records.get(0).getSchema().getFields().get(2).name());
+        assertEquals("2018-10-28 05:00:00.000", records.get(0).get("bad_date_standardized").toString());
+        assertEquals("2018-10-28 05:00:00.000", records.get(0).get("bad_date_union_standardized").toString());
+        assertEquals("2005-11-11 06:00:00.000", records.get(1).get("bad_date_standardized").toString());
+        assertNull(records.get(1).get("bad_date_union_standardized"));
+    }
+
+    @Test
+    public void testStandardizationWithCache() throws IOException {
+        runner.setProperty(StandardizeDateProperties.FLOW_FORMAT, "AVRO");
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"bad_date\":\"MM/dd/yy\",\"bad_date_union\":\"MM/dd/yy\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+        runner.setProperty(StandardizeDateProperties.CONVERSION_CACHE_SIZE, "1000");
+
+        runner.enqueue(unprocessedFile);
+
+        runner.run();
+        runner.assertQueueEmpty();
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_SUCCESS, 1);
+
+        final List<GenericRecord> records = readRecords(runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS).get(0));
+
+        assertEquals("2018-10-28 05:00:00.000", records.get(0).get("bad_date_standardized").toString());
+        assertEquals("2018-10-28 05:00:00.000", records.get(0).get("bad_date_union_standardized").toString());
+        assertEquals("2005-11-11 06:00:00.000", records.get(1).get("bad_date_standardized").toString());
+        assertNull(records.get(1).get("bad_date_union_standardized"));
+    }
+
+    @Test
+    public void testPassThrough() throws IOException {
+        runner.setProperty(StandardizeDateProperties.FLOW_FORMAT, "AVRO");
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"other_date\":\"MM/dd/yy\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+
+        runner.enqueue(unprocessedFile);
+
+        runner.run();
+        runner.assertQueueEmpty();
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_SUCCESS, 1);
+
+        runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS).get(0).assertContentEquals(unprocessedFile);
     }
 
     @Test
@@ -82,4 +143,344 @@ public class StandardizeDateAvroTest {
         runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_SUCCESS, 1);
     }
 
+    @Test
+    public void testSchemaReuse() throws IOException {
+        runner.setProperty(StandardizeDateProperties.FLOW_FORMAT, "AVRO");
+        runner.setProperty(StandardizeDateProperties.AVRO_SCHEMA, avroSchema);
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"bad_date_union\":\"MM/dd/yy\",\"bad_date\":\"MM/dd/yy\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+
+        runner.enqueue(unprocessedFile);
+        runner.enqueue(unprocessedFile);
+
+        runner.run(2);
+        runner.assertQueueEmpty();
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_SUCCESS, 2);
+
+        final List<MockFlowFile> outFiles = runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS);
+        final GenericRecord first = readRecords(outFiles.get(0)).get(0);
+        final GenericRecord second = readRecords(outFiles.get(1)).get(0);
+
+        assertEquals(first.getSchema(), second.getSchema());
+        assertEquals("bad_date_union_standardized", first.getSchema().getFields().get(4).name());
+    }
+
+    @Test
+    public void testInvalidContent() throws IOException {
+        runner.setProperty(StandardizeDateProperties.FLOW_FORMAT, "AVRO");
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"bad_date\":\"MM/dd/yy\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+
+        runner.enqueue("{\"bad_date\":\"10/28/18\"}");
+
+        runner.run();
+        runner.assertQueueEmpty();
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_FAILURE, 1);
+    }
+
+    private static List<GenericRecord> readRecords(MockFlowFile flowFile) throws IOException {
+        final List<GenericRecord> records = new ArrayList<>();
+        try (DataFileStream<GenericRecord> reader = new DataFileStream<>(new ByteArrayInputStream(flowFile.toByteArray()), new GenericDatumReader<GenericRecord>())) {
+            for (GenericRecord record : reader)
+                records.add(record);
+        }
+        return records;
+    }
+
+    @Test
+    public void testRecordFailurePolicy() throws IOException {
+        runner.setProperty(StandardizeDateProperties.FLOW_FORMAT, "AVRO");
+        runner.setProperty(StandardizeDateProperties.AVRO_SCHEMA, avroSchema);
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"bad_date\":\"MM/dd/yy\",\"bad_date_union\":\"yy/MM/dd\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+        runner.setProperty(StandardizeDateProperties.FAILURE_POLICY, "RECORD");
+
+        runner.enqueue(unprocessedFile);
+
+        runner.run();
+        runner.assertQueueEmpty();
+        runner.assertTransferCount(StandardizeDateRelationships.REL_SUCCESS, 1);
+        runner.assertTransferCount(StandardizeDateRelationships.REL_FAILURE, 1);
+
+        final List<GenericRecord> records = readRecords(runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS).get(0));
+        assertEquals(1, records.size());
+        assertEquals("2005-11-11 06:00:00.000", records.get(0).get("bad_date_standardized").toString());
+
+        final MockFlowFile failedFile = runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_FAILURE).get(0);
+        final List<GenericRecord> failedRecords = readRecords(failedFile);
+        assertEquals(1, failedRecords.size());
+        assertEquals("10/28/18", failedRecords.get(0).get("bad_date").toString());
+        assertNull(failedRecords.get(0).getSchema().getField("bad_date_standardized"));
+        failedFile.assertAttributeEquals("standardize.failure.field", "bad_date_union");
+    }
+
+    @Test
+    public void testCodec() throws IOException {
+        runner.setProperty(StandardizeDateProperties.FLOW_FORMAT, "AVRO");
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"bad_date\":\"MM/dd/yy\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+        runner.setProperty(StandardizeDateProperties.AVRO_CODEC, "DEFLATE");
+        runner.setProperty(StandardizeDateProperties.COMPRESSION_LEVEL, "1");
+        runner.setProperty(StandardizeDateProperties.SYNC_INTERVAL, "1 KB");
+
+        runner.enqueue(unprocessedFile);
+
+        runner.run();
+        runner.assertQueueEmpty();
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_SUCCESS, 1);
+
+        final MockFlowFile outFile = runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS).get(0);
+
+        assertEquals("deflate", readCodec(outFile));
+        assertEquals(2, readRecords(outFile).size());
+    }
+
+    @Test
+    public void testInheritCodec() throws IOException {
+        runner.setProperty(StandardizeDateProperties.FLOW_FORMAT, "AVRO");
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"bad_date\":\"MM/dd/yy\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+        runner.setProperty(StandardizeDateProperties.AVRO_CODEC, "XZ");
+
+        runner.enqueue(unprocessedFile);
+        runner.run();
+        final MockFlowFile xzFile = runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS).get(0);
+        assertEquals("xz", readCodec(xzFile));
+
+        runner.clearTransferState();
+        runner.setProperty(StandardizeDateProperties.AVRO_CODEC, "INHERIT");
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"bad_date_union\":\"MM/dd/yy\"}");
+
+        runner.enqueue(xzFile.toByteArray());
+        runner.run();
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_SUCCESS, 1);
+
+        final MockFlowFile outFile = runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS).get(0);
+
+        assertEquals("xz", readCodec(outFile));
+        assertEquals("2018-10-28 05:00:00.000", readRecords(outFile).get(0).get("bad_date_union_standardized").toString());
+    }
+
+    @Test
+    public void testEpochMicros() throws IOException {
+        runner.setProperty(StandardizeDateProperties.FLOW_FORMAT, "AVRO");
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"bad_date\":\"MM/dd/yy\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+        runner.setProperty(StandardizeDateProperties.OUTPUT_FORMAT, "EPOCH_MICROS");
+
+        runner.enqueue(unprocessedFile);
+        runner.run();
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_SUCCESS, 1);
+
+        final MockFlowFile outFile = runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS).get(0);
+        final GenericRecord record = readRecords(outFile).get(0);
+        final Schema type = record.getSchema().getField("bad_date_standardized").schema().getTypes().get(1);
+
+        assertEquals("timestamp-micros", type.getLogicalType().getName());
+        assertEquals(1540702800000000L, record.get("bad_date_standardized"));
+    }
+
+    private static String readCodec(MockFlowFile flowFile) throws IOException {
+        try (DataFileStream<GenericRecord> reader = new DataFileStream<>(new ByteArrayInputStream(flowFile.toByteArray()), new GenericDatumReader<GenericRecord>())) {
+            return reader.getMetaString("avro.codec");
+        }
+    }
+
+    @Test
+    public void testNullPolicyOnRequiredField() throws IOException {
+        final Schema schema = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"Required\",\"fields\":["
+            + "{\"name\":\"id\",\"type\":\"int\"},{\"name\":\"bad_date\",\"type\":\"string\"}]}");
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<GenericRecord>(schema))) {
+            writer.create(schema, content);
+            for (String date : Arrays.asList("10/28/18", "not a date")) {
+                final GenericRecord record = new GenericData.Record(schema);
+                record.put("id", date.length());
+                record.put("bad_date", date);
+                writer.append(record);
+            }
+        }
+
+        runner.setProperty(StandardizeDateProperties.FLOW_FORMAT, "AVRO");
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"bad_date\":\"MM/dd/yy\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+        runner.setProperty(StandardizeDateProperties.FAILURE_POLICY, "NULL");
+
+        runner.enqueue(content.toByteArray());
+        runner.run();
+        runner.assertQueueEmpty();
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_SUCCESS, 1);
+
+        final List<GenericRecord> records = readRecords(runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS).get(0));
+        assertEquals(2, records.size());
+        assertEquals("2018-10-28 05:00:00.000", records.get(0).get("bad_date_standardized").toString());
+        assertNull(records.get(1).get("bad_date_standardized"));
+    }
+
+    @Test
+    public void testSchemasDifferingOnlyInLogicalType() throws IOException {
+        final Schema timestampSchema = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"Visit\",\"fields\":["
+            + "{\"name\":\"bad_date\",\"type\":\"string\"},"
+            + "{\"name\":\"seen\",\"doc\":\"When the visit was seen\",\"type\":{\"type\":\"long\",\"logicalType\":\"timestamp-millis\"}}]}");
+        final Schema longSchema = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"Visit\",\"fields\":["
+            + "{\"name\":\"bad_date\",\"type\":\"string\"},"
+            + "{\"name\":\"seen\",\"type\":\"long\"}]}");
+
+        runner.setProperty(StandardizeDateProperties.FLOW_FORMAT, "AVRO");
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"bad_date\":\"MM/dd/yy\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+
+        for (Schema schema : Arrays.asList(timestampSchema, longSchema)) {
+            final GenericRecord record = new GenericData.Record(schema);
+            record.put("bad_date", "10/28/18");
+            record.put("seen", 1540702800000L);
+            final ByteArrayOutputStream content = new ByteArrayOutputStream();
+            try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<GenericRecord>(schema))) {
+                writer.create(schema, content);
+                writer.append(record);
+            }
+            runner.enqueue(content.toByteArray());
+        }
+
+        runner.run();
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_SUCCESS, 2);
+
+        final List<MockFlowFile> outFiles = runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS);
+        final Schema.Field timestampField = readRecords(outFiles.get(0)).get(0).getSchema().getField("seen");
+        assertEquals("timestamp-millis", timestampField.schema().getProp("logicalType"));
+        assertEquals("When the visit was seen", timestampField.doc());
+        final Schema.Field longField = readRecords(outFiles.get(1)).get(0).getSchema().getField("seen");
+        assertNull(longField.schema().getProp("logicalType"));
+        assertNull(longField.doc());
+    }
+
+    @Test
+    public void testNestedPaths() throws IOException {
+        final Schema schema = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"Site\",\"fields\":["
+            + "{\"name\":\"updated_at\",\"type\":\"string\"},"
+            + "{\"name\":\"location\",\"type\":[\"null\",{\"type\":\"record\",\"name\":\"Location\",\"fields\":["
+            + "{\"name\":\"updated_at\",\"type\":\"string\"}]}]},"
+            + "{\"name\":\"events\",\"type\":{\"type\":\"array\",\"items\":{\"type\":\"record\",\"name\":\"Event\",\"fields\":["
+            + "{\"name\":\"ts\",\"type\":\"string\"}]}}}]}");
+        final Schema locationSchema = schema.getField("location").schema().getTypes().get(1);
+        final Schema eventSchema = schema.getField("events").schema().getElementType();
+
+        final GenericRecord location = new GenericData.Record(locationSchema);
+        location.put("updated_at", "10/28/18");
+        final GenericRecord event = new GenericData.Record(eventSchema);
+        event.put("ts", "10/28/18");
+        final GenericRecord site = new GenericData.Record(schema);
+        site.put("updated_at", "10/28/18");
+        site.put("location", location);
+        site.put("events", Arrays.asList(event, event));
+        final GenericRecord noLocation = new GenericData.Record(schema);
+        noLocation.put("updated_at", "10/28/18");
+        noLocation.put("events", new ArrayList<GenericRecord>());
+
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<GenericRecord>(schema))) {
+            writer.create(schema, content);
+            writer.append(site);
+            writer.append(noLocation);
+        }
+
+        runner.setProperty(StandardizeDateProperties.FLOW_FORMAT, "AVRO");
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"location.updated_at\":\"MM/dd/yy\",\"events[].ts\":\"MM/dd/yy\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+
+        runner.enqueue(content.toByteArray());
+        runner.run();
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_SUCCESS, 1);
+
+        final List<GenericRecord> records = readRecords(runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS).get(0));
+        assertEquals(2, records.size());
+        assertNull(records.get(0).getSchema().getField("updated_at_standardized"));
+        assertEquals("2018-10-28 05:00:00.000", ((GenericRecord) records.get(0).get("location")).get("updated_at_standardized").toString());
+        for (Object standardizedEvent : (List<?>) records.get(0).get("events"))
+            assertEquals("2018-10-28 05:00:00.000", ((GenericRecord) standardizedEvent).get("ts_standardized").toString());
+        assertNull(records.get(1).get("location"));
+        assertEquals(0, ((List<?>) records.get(1).get("events")).size());
+    }
+
+    @Test
+    public void testNestedTimezoneField() throws IOException {
+        final Schema schema = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"Visit\",\"fields\":["
+            + "{\"name\":\"bad_date\",\"type\":\"string\"},"
+            + "{\"name\":\"location\",\"type\":[\"null\",{\"type\":\"record\",\"name\":\"Location\",\"fields\":["
+            + "{\"name\":\"tz\",\"type\":[\"null\",\"string\"]}]}]}]}");
+        final GenericRecord london = new GenericData.Record(schema.getField("location").schema().getTypes().get(1));
+        london.put("tz", "Europe/London");
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<GenericRecord>(schema))) {
+            writer.create(schema, content);
+            for (GenericRecord location : Arrays.asList(london, null)) {
+                final GenericRecord record = new GenericData.Record(schema);
+                record.put("bad_date", "10/28/18");
+                record.put("location", location);
+                writer.append(record);
+            }
+        }
+
+        runner.setProperty(StandardizeDateProperties.FLOW_FORMAT, "AVRO");
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"bad_date\":\"MM/dd/yy\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE_FIELD, "location.tz");
+
+        runner.enqueue(content.toByteArray());
+        runner.run();
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_SUCCESS, 1);
+
+        final List<GenericRecord> records = readRecords(runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS).get(0));
+        assertEquals("2018-10-27 23:00:00.000", records.get(0).get("bad_date_standardized").toString());
+        assertEquals("2018-10-28 05:00:00.000", records.get(1).get("bad_date_standardized").toString());
+
+        runner.clearTransferState();
+        runner.setProperty(StandardizeDateProperties.TIMEZONE_FIELD, "location.timezone");
+        runner.enqueue(content.toByteArray());
+        runner.run();
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_FAILURE, 1);
+    }
+
+    @Test
+    public void testReusedNestedType() throws IOException {
+        final Schema schema = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"Person\",\"fields\":["
+            + "{\"name\":\"home\",\"type\":{\"type\":\"record\",\"name\":\"Loc\",\"fields\":["
+            + "{\"name\":\"updated_at\",\"type\":\"string\"}]}},"
+            + "{\"name\":\"work\",\"type\":\"Loc\"}]}");
+        final GenericRecord home = new GenericData.Record(schema.getField("home").schema());
+        home.put("updated_at", "10/28/18");
+        final GenericRecord work = new GenericData.Record(schema.getField("work").schema());
+        work.put("updated_at", "28/10/18");
+        final GenericRecord person = new GenericData.Record(schema);
+        person.put("home", home);
+        person.put("work", work);
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<GenericRecord>(schema))) {
+            writer.create(schema, content);
+            writer.append(person);
+        }
+
+        runner.setProperty(StandardizeDateProperties.FLOW_FORMAT, "AVRO");
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"home.updated_at\":\"MM/dd/yy\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+
+        runner.enqueue(content.toByteArray());
+        runner.run();
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_SUCCESS, 1);
+
+        GenericRecord record = readRecords(runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS).get(0)).get(0);
+        assertEquals("2018-10-28 05:00:00.000", ((GenericRecord) record.get("home")).get("updated_at_standardized").toString());
+        assertNull(((GenericRecord) record.get("work")).getSchema().getField("updated_at_standardized"));
+        assertEquals("28/10/18", ((GenericRecord) record.get("work")).get("updated_at").toString());
+
+        runner.clearTransferState();
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"home.updated_at\":\"MM/dd/yy\",\"work.updated_at\":\"dd/MM/yy\"}");
+        runner.enqueue(content.toByteArray());
+        runner.run();
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_SUCCESS, 1);
+
+        record = readRecords(runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS).get(0)).get(0);
+        assertEquals("2018-10-28 05:00:00.000", ((GenericRecord) record.get("home")).get("updated_at_standardized").toString());
+        assertEquals("2018-10-28 05:00:00.000", ((GenericRecord) record.get("work")).get("updated_at_standardized").toString());
+    }
 }
@@ -16,9 +16,16 @@
  */
 package com.nineteen04labs.processors.standardizedate;
 
+import static org.junit.Assert.assertEquals;
+
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntPredicate;
 
 import org.apache.nifi.util.MockFlowFile;
 import org.apache.nifi.util.TestRunner;
@@ -64,6 +71,45 @@ public class StandardizeDateJsonTest {
         outFile.assertContentEquals(processedFile);
     }
 
+    @Test
+    public void testStandardizationWithCache() throws IOException {
+        final Path processedFile = Paths.get("src/test/resources/processed.json");
+
+        runner.setProperty(StandardizeDateProperties.FLOW_FORMAT, "JSON");
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"bad_date\":\"MM/dd/yy\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+        runner.setProperty(StandardizeDateProperties.CONVERSION_CACHE_SIZE, "1000");
+
+        runner.enqueue(unprocessedFile);
+
+        runner.run();
+        runner.assertQueueEmpty();
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_SUCCESS, 1);
+
+        final MockFlowFile outFile = runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS).get(0);
+
+        outFile.assertContentEquals(processedFile);
+    }
+
+    @Test
+    public void testPassThrough() throws IOException {
+        runner.setProperty(StandardizeDateProperties.FLOW_FORMAT, "JSON");
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"other_date\":\"MM/dd/yy\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+
+        runner.enqueue(unprocessedFile);
+
+        runner.run();
+        runner.assertQueueEmpty();
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_SUCCESS, 1);
+
+        final MockFlowFile outFile = runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS).get(0);
+
+        outFile.assertContentEquals(unprocessedFile);
+        outFile.assertAttributeNotExists("standardize.record.count");
+        assertEquals(1, runner.getCounterValue("FlowFiles Passed Through").longValue());
+    }
+
     @Test
     public void testShortZoneId() throws IOException {
         final Path processedFile = Paths.get("src/test/resources/processed.json");
@@ -82,4 +128,387 @@ public class StandardizeDateJsonTest {
 
         outFile.assertContentEquals(processedFile);
     }
+
+    @Test
+    public void testExpressionLanguage() throws IOException {
+        final Path processedFile = Paths.get("src/test/resources/processed.json");
+
+        runner.setProperty(StandardizeDateProperties.FLOW_FORMAT, "JSON");
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "${invalid.dates}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "${timezone}");
+
+        runner.enqueue(unprocessedFile, Collections.singletonMap("invalid.dates", "{\"bad_date\":\"MM/dd/yy\"}"));
+
+        runner.run();
+        runner.assertQueueEmpty();
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_FAILURE, 1);
+        runner.clearTransferState();
+
+        final Map<String, String> attributes = new HashMap<>();
+        attributes.put("invalid.dates", "{\"bad_date\":\"MM/dd/yy\"}");
+        attributes.put("timezone", "America/Chicago");
+        runner.enqueue(unprocessedFile, attributes);
+        runner.enqueue(unprocessedFile, attributes);
+
+        runner.run(2);
+        runner.assertQueueEmpty();
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_SUCCESS, 2);
+
+        for (MockFlowFile outFile : runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS))
+            outFile.assertContentEquals(processedFile);
+    }
+
+    @Test
+    public void testBatch() throws IOException {
+        final Path processedFile = Paths.get("src/test/resources/processed.json");
+
+        runner.setProperty(StandardizeDateProperties.FLOW_FORMAT, "JSON");
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"bad_date\":\"MM/dd/yy\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+        runner.setProperty(StandardizeDateProperties.BATCH_SIZE, "10");
+
+        for (int i = 0; i < 4; i++)
+            runner.enqueue(unprocessedFile);
+        runner.enqueue("{\"bad_date\":\"not a date\"}");
+
+        runner.run();
+        runner.assertQueueEmpty();
+        runner.assertTransferCount(StandardizeDateRelationships.REL_SUCCESS, 4);
+        runner.assertTransferCount(StandardizeDateRelationships.REL_FAILURE, 1);
+
+        for (MockFlowFile outFile : runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS))
+            outFile.assertContentEquals(processedFile);
+    }
+
+    @Test
+    public void testParallelChunks() throws IOException {
+        final byte[] content = generateRecords(40000, i -> false);
+
+        runner.setProperty(StandardizeDateProperties.FLOW_FORMAT, "JSON");
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"bad_date\":\"MM/dd/yy\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+
+        runner.enqueue(content);
+        runner.run();
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_SUCCESS, 1);
+        final byte[] sequential = runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS).get(0).toByteArray();
+        runner.clearTransferState();
+
+        runner.setProperty(StandardizeDateProperties.PARALLELISM, "4");
+        runner.enqueue(content);
+        runner.run();
+        runner.assertQueueEmpty();
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_SUCCESS, 1);
+
+        runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS).get(0).assertContentEquals(sequential);
+    }
+
+    @Test
+    public void testParallelChunkFailure() throws IOException {
+        runner.setProperty(StandardizeDateProperties.FLOW_FORMAT, "JSON");
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"bad_date\":\"MM/dd/yy\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+        runner.setProperty(StandardizeDateProperties.PARALLELISM, "4");
+
+        runner.enqueue(generateRecords(40000, i -> i == 25000));
+        runner.run();
+        runner.assertQueueEmpty();
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_FAILURE, 1);
+    }
+
+    @Test
+    public void testParallelChunkFailedRecordOrder() throws IOException {
+        final byte[] content = generateRecords(40000, i -> i % 3000 == 0);
+
+        runner.setProperty(StandardizeDateProperties.FLOW_FORMAT, "JSON");
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"bad_date\":\"MM/dd/yy\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+        runner.setProperty(StandardizeDateProperties.FAILURE_POLICY, "RECORD");
+
+        runner.enqueue(content);
+        runner.run();
+        final byte[] sequential = runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_FAILURE).get(0).toByteArray();
+        runner.clearTransferState();
+
+        runner.setProperty(StandardizeDateProperties.PARALLELISM, "4");
+        runner.enqueue(content);
+        runner.run();
+        runner.assertQueueEmpty();
+        runner.assertTransferCount(StandardizeDateRelationships.REL_SUCCESS, 1);
+        runner.assertTransferCount(StandardizeDateRelationships.REL_FAILURE, 1);
+
+        final MockFlowFile failedFile = runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_FAILURE).get(0);
+        failedFile.assertContentEquals(sequential);
+        failedFile.assertAttributeEquals("standardize.failure.count", "14");
+    }
+
+    private static byte[] generateRecords(int count, IntPredicate bad) {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            final String date = bad.test(i) ? "not a date" : String.format("%02d/%02d/%02d", 1 + i % 12, 1 + i % 28, i % 100);
+            sb.append("{\"id\":").append(i).append(",\"bad_date\":\"").append(date)
+                .append("\",\"location\":{\"state\":\"CA\",\"country\":\"US\"},\"first_name\":\"Catherine\",\"last_name\":\"Easton\"}\n");
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testNullDate() throws IOException {
+        runner.setProperty(StandardizeDateProperties.FLOW_FORMAT, "JSON");
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"bad_date\":\"MM/dd/yy\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+
+        runner.enqueue("{\"id\":1,\"bad_date\":null}\n{\"id\":2,\"bad_date\":\"10/28/18\"}");
+
+        runner.run();
+        runner.assertQueueEmpty();
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_SUCCESS, 1);
+
+        final MockFlowFile outFile = runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS).get(0);
+
+        outFile.assertContentEquals("{\"id\":1,\"bad_date\":null,\"bad_date_standardized\":null}\n"
+            + "{\"id\":2,\"bad_date\":\"10/28/18\",\"bad_date_standardized\":\"2018-10-28 05:00:00.000\"}\n");
+    }
+
+    @Test
+    public void testMetrics() throws IOException {
+        runner.setProperty(StandardizeDateProperties.FLOW_FORMAT, "JSON");
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"bad_date\":\"MM/dd/yy\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+        runner.setProperty(StandardizeDateProperties.CONVERSION_CACHE_SIZE, "1000");
+
+        runner.enqueue("{\"id\":1,\"bad_date\":null}\n{\"id\":2,\"bad_date\":\"10/28/18\"}\n{\"id\":3,\"bad_date\":\"10/28/18\"}");
+        runner.enqueue("{\"id\":4,\"bad_date\":\"10/28/18\"}\n{\"id\":5,\"bad_date\":\"2018-10-28\"}");
+
+        runner.run();
+        runner.assertQueueEmpty();
+        runner.assertTransferCount(StandardizeDateRelationships.REL_SUCCESS, 1);
+        runner.assertTransferCount(StandardizeDateRelationships.REL_FAILURE, 1);
+
+        final MockFlowFile outFile = runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS).get(0);
+        outFile.assertAttributeEquals("standardize.record.count", "3");
+        outFile.assertAttributeExists("standardize.millis");
+
+        assertEquals(Long.valueOf(4), runner.getCounterValue("Records Processed"));
+        assertEquals(Long.valueOf(3), runner.getCounterValue("Fields Standardized"));
+        assertEquals(Long.valueOf(1), runner.getCounterValue("Null Dates"));
+        assertEquals(Long.valueOf(2), runner.getCounterValue("Conversion Cache Hits"));
+        assertEquals(Long.valueOf(1), runner.getCounterValue("Failures on bad_date"));
+        assertEquals(Long.valueOf(1), runner.getCounterValue("FlowFiles Failed"));
+    }
+
+    @Test
+    public void testRecordFailurePolicy() throws IOException {
+        runner.setProperty(StandardizeDateProperties.FLOW_FORMAT, "JSON");
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"bad_date\":\"MM/dd/yy\",\"other_date\":\"MM/dd/yy\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+        runner.setProperty(StandardizeDateProperties.FAILURE_POLICY, "RECORD");
+
+        runner.enqueue("{\"id\":1,\"bad_date\":\"10/28/18\"}\n"
+            + "{\"id\":2,\"bad_date\":\"2018-10-28\",\"other_date\":\"10/28/18\"}\n"
+            + "{\"id\":3,\"bad_date\":null}\n");
+
+        runner.run();
+        runner.assertQueueEmpty();
+        runner.assertTransferCount(StandardizeDateRelationships.REL_SUCCESS, 1);
+        runner.assertTransferCount(StandardizeDateRelationships.REL_FAILURE, 1);
+
+        final MockFlowFile outFile = runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS).get(0);
+        outFile.assertContentEquals("{\"id\":1,\"bad_date\":\"10/28/18\",\"bad_date_standardized\":\"2018-10-28 05:00:00.000\"}\n"
+            + "{\"id\":3,\"bad_date\":null,\"bad_date_standardized\":null}\n");
+
+        final MockFlowFile failedFile = runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_FAILURE).get(0);
+        failedFile.assertContentEquals("{\"id\":2,\"bad_date\":\"2018-10-28\",\"other_date\":\"10/28/18\"}\n");
+        failedFile.assertAttributeEquals("standardize.failure.count", "1");
+        failedFile.assertAttributeEquals("standardize.failure.field", "bad_date");
+        failedFile.assertAttributeEquals("standardize.failure.value", "2018-10-28");
+        failedFile.assertAttributeEquals("standardize.failure.format", "MM/dd/yy");
+    }
+
+    @Test
+    public void testNullFailurePolicy() throws IOException {
+        runner.setProperty(StandardizeDateProperties.FLOW_FORMAT, "JSON");
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"bad_date\":\"MM/dd/yy\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+        runner.setProperty(StandardizeDateProperties.FAILURE_POLICY, "NULL");
+
+        runner.enqueue("{\"id\":1,\"bad_date\":\"2018-10-28\"}\n{\"id\":2,\"bad_date\":\"10/28/18\"}\n");
+
+        runner.run();
+        runner.assertQueueEmpty();
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_SUCCESS, 1);
+
+        final MockFlowFile outFile = runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS).get(0);
+        outFile.assertContentEquals("{\"id\":1,\"bad_date\":\"2018-10-28\",\"bad_date_standardized\":null}\n"
+            + "{\"id\":2,\"bad_date\":\"10/28/18\",\"bad_date_standardized\":\"2018-10-28 05:00:00.000\"}\n");
+        assertEquals(Long.valueOf(1), runner.getCounterValue("Failures on bad_date"));
+    }
+
+    @Test
+    public void testCaseInsensitiveFieldNames() throws IOException {
+        runner.setProperty(StandardizeDateProperties.FLOW_FORMAT, "JSON");
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"bad_date\":\"MM/dd/yy\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+
+        runner.enqueue("{\"id\":1,\"BAD_DATE\":\"10/28/18\",\"nested\":{\"Bad_Date\":\"11/11/05\"}}\n{\"id\":2,\"BAD_DATE\":\"11/11/05\"}\n");
+
+        runner.run();
+        runner.assertQueueEmpty();
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_SUCCESS, 1);
+
+        final MockFlowFile outFile = runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS).get(0);
+
+        outFile.assertContentEquals("{\"id\":1,\"BAD_DATE\":\"10/28/18\",\"BAD_DATE_standardized\":\"2018-10-28 05:00:00.000\","
+            + "\"nested\":{\"Bad_Date\":\"11/11/05\",\"Bad_Date_standardized\":\"2005-11-11 06:00:00.000\"}}\n"
+            + "{\"id\":2,\"BAD_DATE\":\"11/11/05\",\"BAD_DATE_standardized\":\"2005-11-11 06:00:00.000\"}\n");
+    }
+
+    @Test
+    public void testMultipleFormats() throws IOException {
+        runner.setProperty(StandardizeDateProperties.FLOW_FORMAT, "JSON");
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"bad_date\":[\"MM/dd/yy\",\"yyyy-MM-dd\"]}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+
+        runner.enqueue("{\"id\":1,\"bad_date\":\"10/28/18\"}\n{\"id\":2,\"bad_date\":\"2005-11-11\"}\n");
+
+        runner.run();
+        runner.assertQueueEmpty();
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_SUCCESS, 1);
+
+        final MockFlowFile outFile = runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS).get(0);
+
+        outFile.assertContentEquals("{\"id\":1,\"bad_date\":\"10/28/18\",\"bad_date_standardized\":\"2018-10-28 05:00:00.000\"}\n"
+            + "{\"id\":2,\"bad_date\":\"2005-11-11\",\"bad_date_standardized\":\"2005-11-11 06:00:00.000\"}\n");
+    }
+
+    @Test
+    public void testEpochMillisReplace() throws IOException {
+        runner.setProperty(StandardizeDateProperties.FLOW_FORMAT, "JSON");
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"bad_date\":\"MM/dd/yy\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+        runner.setProperty(StandardizeDateProperties.OUTPUT_FORMAT, "EPOCH_MILLIS");
+        runner.setProperty(StandardizeDateProperties.OUTPUT_PLACEMENT, "REPLACE");
+
+        runner.enqueue("{\"id\":1,\"bad_date\":\"10/28/18\"}\n{\"id\":2,\"bad_date\":null}\n");
+
+        runner.run();
+        runner.assertQueueEmpty();
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_SUCCESS, 1);
+
+        final MockFlowFile outFile = runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS).get(0);
+
+        outFile.assertContentEquals("{\"id\":1,\"bad_date\":1540702800000}\n{\"id\":2,\"bad_date\":null}\n");
+    }
+
+    @Test
+    public void testTimezoneField() throws IOException {
+        runner.setProperty(StandardizeDateProperties.FLOW_FORMAT, "JSON");
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"bad_date\":\"MM/dd/yy\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE_FIELD, "site_timezone");
+        runner.setProperty(StandardizeDateProperties.FAILURE_POLICY, "RECORD");
+
+        runner.enqueue("{\"id\":1,\"site_timezone\":\"Europe/London\",\"bad_date\":\"10/28/18\"}\n"
+            + "{\"id\":2,\"bad_date\":\"10/28/18\",\"site_timezone\":\"Asia/Kolkata\"}\n"
+            + "{\"id\":3,\"bad_date\":\"10/28/18\",\"site\":{\"site_timezone\":\"Asia/Kolkata\"}}\n"
+            + "{\"id\":4,\"site_timezone\":\"Mars/Olympus_Mons\",\"bad_date\":\"10/28/18\"}\n");
+
+        runner.run();
+        runner.assertQueueEmpty();
+        runner.assertTransferCount(StandardizeDateRelationships.REL_SUCCESS, 1);
+        runner.assertTransferCount(StandardizeDateRelationships.REL_FAILURE, 1);
+
+        final MockFlowFile outFile = runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS).get(0);
+        outFile.assertContentEquals("{\"id\":1,\"site_timezone\":\"Europe/London\",\"bad_date\":\"10/28/18\",\"bad_date_standardized\":\"2018-10-27 23:00:00.000\"}\n"
+            + "{\"id\":2,\"bad_date\":\"10/28/18\",\"bad_date_standardized\":\"2018-10-27 18:30:00.000\",\"site_timezone\":\"Asia/Kolkata\"}\n"
+            + "{\"id\":3,\"bad_date\":\"10/28/18\",\"bad_date_standardized\":\"2018-10-28 05:00:00.000\",\"site\":{\"site_timezone\":\"Asia/Kolkata\"}}\n");
+
+        final MockFlowFile failedFile = runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_FAILURE).get(0);
+        failedFile.assertContentEquals("{\"id\":4,\"site_timezone\":\"Mars/Olympus_Mons\",\"bad_date\":\"10/28/18\"}\n");
+        failedFile.assertAttributeEquals("standardize.failure.field", "bad_date");
+    }
+
+    @Test
+    public void testNestedPaths() throws IOException {
+        runner.setProperty(StandardizeDateProperties.FLOW_FORMAT, "JSON");
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"location.updated_at\":\"MM/dd/yy\",\"events[].ts\":\"MM/dd/yy\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+
+        runner.enqueue("{\"id\":1,\"updated_at\":\"10/28/18\",\"location\":{\"updated_at\":\"10/28/18\",\"geo\":{\"updated_at\":\"now\"}},"
+            + "\"events\":[{\"ts\":\"10/28/18\"},{\"ts\":null}],\"tags\":[{\"ts\":\"now\"}]}\n"
+            + "{\"id\":2,\"location\":null,\"events\":[]}\n");
+
+        runner.run();
+        runner.assertQueueEmpty();
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_SUCCESS, 1);
+
+        final MockFlowFile outFile = runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS).get(0);
+        outFile.assertContentEquals("{\"id\":1,\"updated_at\":\"10/28/18\","
+            + "\"location\":{\"updated_at\":\"10/28/18\",\"updated_at_standardized\":\"2018-10-28 05:00:00.000\",\"geo\":{\"updated_at\":\"now\"}},"
+            + "\"events\":[{\"ts\":\"10/28/18\",\"ts_standardized\":\"2018-10-28 05:00:00.000\"},{\"ts\":null,\"ts_standardized\":null}],"
+            + "\"tags\":[{\"ts\":\"now\"}]}\n"
+            + "{\"id\":2,\"location\":null,\"events\":[]}\n");
+        assertEquals(Long.valueOf(2), runner.getCounterValue("Fields Standardized"));
+    }
+
+    @Test
+    public void testNestedPathsMixedCase() throws IOException {
+        runner.setProperty(StandardizeDateProperties.FLOW_FORMAT, "JSON");
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"location.updatedAt\":\"MM/dd/yy\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+
+        runner.enqueue("{\"location\":{\"updatedAt\":\"10/28/18\"}}\n{\"Location\":{\"UPDATEDAT\":\"10/28/18\"}}\n");
+
+        runner.run();
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_SUCCESS, 1);
+
+        final MockFlowFile outFile = runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS).get(0);
+        outFile.assertContentEquals("{\"location\":{\"updatedAt\":\"10/28/18\",\"updatedAt_standardized\":\"2018-10-28 05:00:00.000\"}}\n"
+            + "{\"Location\":{\"UPDATEDAT\":\"10/28/18\",\"UPDATEDAT_standardized\":\"2018-10-28 05:00:00.000\"}}\n");
+    }
+
+    @Test
+    public void testNestedPathsPassThrough() throws IOException {
+        runner.setProperty(StandardizeDateProperties.FLOW_FORMAT, "JSON");
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"location.updated_at\":\"MM/dd/yy\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+
+        final String content = "{\"updated_at\":\"10/28/18\",\"site\":{\"location\":{\"updated_at\":\"10/28/18\"}}}\n";
+        runner.enqueue(content);
+
+        runner.run();
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_SUCCESS, 1);
+        runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS).get(0).assertContentEquals(content);
+        assertEquals(Long.valueOf(1), runner.getCounterValue("FlowFiles Passed Through"));
+    }
+
+    @Test
+    public void testNestedTimezoneField() throws IOException {
+        runner.setProperty(StandardizeDateProperties.FLOW_FORMAT, "JSON");
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"bad_date\":\"MM/dd/yy\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE_FIELD, "location.tz");
+
+        runner.enqueue("{\"id\":1,\"bad_date\":\"10/28/18\",\"location\":{\"city\":\"London\",\"tz\":\"Europe/London\"}}\n"
+            + "{\"id\":2,\"bad_date\":\"10/28/18\",\"tz\":\"Europe/London\",\"location\":{\"tz\":null}}\n");
+
+        runner.run();
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_SUCCESS, 1);
+
+        runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS).get(0).assertContentEquals(
+            "{\"id\":1,\"bad_date\":\"10/28/18\",\"bad_date_standardized\":\"2018-10-27 23:00:00.000\",\"location\":{\"city\":\"London\",\"tz\":\"Europe/London\"}}\n"
+            + "{\"id\":2,\"bad_date\":\"10/28/18\",\"bad_date_standardized\":\"2018-10-28 05:00:00.000\",\"tz\":\"Europe/London\",\"location\":{\"tz\":null}}\n");
+    }
+
+    @Test
+    public void testInvalidTimezoneFieldPath() {
+        runner.setProperty(StandardizeDateProperties.FLOW_FORMAT, "JSON");
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"bad_date\":\"MM/dd/yy\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE_FIELD, "location..tz");
+        runner.assertNotValid();
+
+        runner.setProperty(StandardizeDateProperties.TIMEZONE_FIELD, "events[].tz");
+        runner.assertNotValid();
+    }
 }
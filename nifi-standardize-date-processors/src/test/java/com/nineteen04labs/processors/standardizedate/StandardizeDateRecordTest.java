@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.nineteen04labs.processors.standardizedate;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.nifi.reporting.InitializationException;
+import org.apache.nifi.util.MockFlowFile;
+import org.apache.nifi.util.TestRunner;
+import org.apache.nifi.util.TestRunners;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StandardizeDateRecordTest {
+
+    private final String unprocessed = "id,bad_date,name\n"
+        + "1,10/28/18,Catherine\n"
+        + "2,,James\n"
+        + "3,11/11/05,Ann\n";
+    private final TestRunner runner = TestRunners.newTestRunner(new StandardizeDateRecord());
+
+    @Before
+    public void setUp() throws InitializationException {
+        final MockCsvRecordReader reader = new MockCsvRecordReader();
+        final MockCsvRecordSetWriter writer = new MockCsvRecordSetWriter();
+        runner.addControllerService("reader", reader);
+        runner.addControllerService("writer", writer);
+        runner.enableControllerService(reader);
+        runner.enableControllerService(writer);
+        runner.setProperty(StandardizeDateProperties.RECORD_READER, "reader");
+        runner.setProperty(StandardizeDateProperties.RECORD_WRITER, "writer");
+    }
+
+    @Test
+    public void testNoProcessing() {
+        runner.enqueue(unprocessed);
+
+        runner.run();
+        runner.assertQueueEmpty();
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_BYPASS, 1);
+
+        runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_BYPASS).get(0).assertContentEquals(unprocessed);
+    }
+
+    @Test
+    public void testStandardization() {
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"bad_date\":\"MM/dd/yy\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+
+        runner.enqueue(unprocessed);
+
+        runner.run();
+        runner.assertQueueEmpty();
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_SUCCESS, 1);
+
+        final MockFlowFile outFile = runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS).get(0);
+
+        outFile.assertContentEquals("id,bad_date,bad_date_standardized,name\n"
+            + "1,10/28/18,2018-10-28 05:00:00.000,Catherine\n"
+            + "2,,,James\n"
+            + "3,11/11/05,2005-11-11 06:00:00.000,Ann\n", StandardCharsets.UTF_8);
+        outFile.assertAttributeEquals("record.count", "3");
+        outFile.assertAttributeEquals("mime.type", "text/csv");
+    }
+
+    @Test
+    public void testTimezoneField() {
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"bad_date\":\"MM/dd/yy\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE_FIELD, "site_timezone");
+
+        runner.enqueue("id,bad_date,site_timezone\n1,10/28/18,Asia/Kolkata\n2,10/28/18,\n");
+
+        runner.run();
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_SUCCESS, 1);
+
+        final MockFlowFile outFile = runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS).get(0);
+
+        outFile.assertContentEquals("id,bad_date,bad_date_standardized,site_timezone\n"
+            + "1,10/28/18,2018-10-27 18:30:00.000,Asia/Kolkata\n"
+            + "2,10/28/18,2018-10-28 05:00:00.000,\n", StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testInvalidDate() {
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"bad_date\":\"yyyy-MM-dd\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+
+        runner.enqueue(unprocessed);
+
+        runner.run();
+        runner.assertQueueEmpty();
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_FAILURE, 1);
+
+        runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_FAILURE).get(0).assertContentEquals(unprocessed);
+    }
+
+    @Test
+    public void testRecordFailurePolicy() {
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"bad_date\":\"yy/MM/dd\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+        runner.setProperty(StandardizeDateProperties.FAILURE_POLICY, "RECORD");
+
+        runner.enqueue("id,bad_date,name\n1,18/10/28,Catherine\n2,10/28/18,James\n");
+
+        runner.run();
+        runner.assertQueueEmpty();
+        runner.assertTransferCount(StandardizeDateRelationships.REL_SUCCESS, 1);
+        runner.assertTransferCount(StandardizeDateRelationships.REL_FAILURE, 1);
+
+        final MockFlowFile outFile = runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS).get(0);
+        outFile.assertContentEquals("id,bad_date,bad_date_standardized,name\n1,18/10/28,2018-10-28 05:00:00.000,Catherine\n", StandardCharsets.UTF_8);
+        outFile.assertAttributeEquals("record.count", "1");
+
+        final MockFlowFile failedFile = runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_FAILURE).get(0);
+        failedFile.assertContentEquals("id,bad_date,name\n2,10/28/18,James\n", StandardCharsets.UTF_8);
+        failedFile.assertAttributeEquals("standardize.failure.value", "10/28/18");
+    }
+
+    @Test
+    public void testReplaceWithRecordFailurePolicy() {
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"created\":\"yy/MM/dd\",\"updated\":\"yy/MM/dd\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+        runner.setProperty(StandardizeDateProperties.FAILURE_POLICY, "RECORD");
+        runner.setProperty(StandardizeDateProperties.OUTPUT_PLACEMENT, "REPLACE");
+
+        runner.enqueue("id,created,updated\n1,18/10/28,18/10/29\n2,18/10/28,10/28/18\n");
+
+        runner.run();
+        runner.assertQueueEmpty();
+        runner.assertTransferCount(StandardizeDateRelationships.REL_SUCCESS, 1);
+        runner.assertTransferCount(StandardizeDateRelationships.REL_FAILURE, 1);
+
+        runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS).get(0)
+            .assertContentEquals("id,created,updated\n1,2018-10-28 05:00:00.000,2018-10-29 05:00:00.000\n", StandardCharsets.UTF_8);
+        runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_FAILURE).get(0)
+            .assertContentEquals("id,created,updated\n2,18/10/28,10/28/18\n", StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testMissingTimezoneField() {
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, "{\"bad_date\":\"MM/dd/yy\"}");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, "America/Chicago");
+        runner.setProperty(StandardizeDateProperties.TIMEZONE_FIELD, "site_timezone");
+
+        runner.enqueue(unprocessed);
+
+        runner.run();
+        runner.assertQueueEmpty();
+        runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_FAILURE, 1);
+        runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_FAILURE).get(0).assertContentEquals(unprocessed);
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.nineteen04labs.processors.standardizedate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.function.BiConsumer;
+
+import org.apache.avro.Schema;
+import org.apache.avro.file.DataFileStream;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.nifi.util.MockFlowFile;
+import org.apache.nifi.util.TestRunner;
+import org.apache.nifi.util.TestRunners;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+/**
+ * Runs StandardizeDate with 1 to 16 concurrent tasks over generated JSON and
+ * Avro FlowFiles, checking every output and gating scaling efficiency against
+ * src/test/resources/scaling-baseline.properties. Excluded from the default
+ * build; run it with {@code mvn test -Pscaling}. Measured throughput and
+ * efficiency are written to target/scaling-results.properties.
+ *
+ * Scaling efficiency is throughput relative to one thread, divided by the
+ * number of threads that can actually run at once on this machine. Absolute
+ * throughput depends on the machine, so it is reported but not asserted on.
+ */
+public class StandardizeDateScalingTest {
+
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16};
+    private static final int FLOWFILES = Integer.getInteger("scaling.flowfiles", 2000);
+    private static final int RECORDS_PER_FLOWFILE = 50;
+    private static final String INVALID_DATES = "{\"bad_date\":\"MM/dd/yy\"}";
+    private static final String TIMEZONE = "America/Chicago";
+    private static final Schema AVRO_SCHEMA = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"event\",\"fields\":["
+        + "{\"name\":\"id\",\"type\":\"int\"},{\"name\":\"bad_date\",\"type\":\"string\"}]}");
+
+    private static final DateTimeFormatter INPUT = DateTimeFormatter.ofPattern("MM/dd/yy");
+    private static final DateTimeFormatter STANDARD = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+    private static final Properties results = new Properties();
+
+    @AfterClass
+    public static void writeResults() throws IOException {
+        Files.createDirectories(Paths.get("target"));
+        try (OutputStream out = Files.newOutputStream(Paths.get("target/scaling-results.properties"))) {
+            results.store(out, "StandardizeDateScalingTest with " + Runtime.getRuntime().availableProcessors() + " processors");
+        }
+    }
+
+    @Test
+    public void testJsonScaling() throws IOException {
+        final List<LocalDate[]> dates = generateDates();
+        final List<byte[]> inputs = new ArrayList<>();
+        for (LocalDate[] flowFileDates : dates) {
+            final StringBuilder json = new StringBuilder();
+            for (int i = 0; i < flowFileDates.length; i++)
+                json.append("{\"id\":").append(i).append(",\"bad_date\":\"").append(INPUT.format(flowFileDates[i])).append("\"}\n");
+            inputs.add(json.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertScaling("json", "JSON", inputs, (flowFile, flowFileDates) -> {
+            final StringBuilder expected = new StringBuilder();
+            for (int i = 0; i < flowFileDates.length; i++)
+                expected.append("{\"id\":").append(i).append(",\"bad_date\":\"").append(INPUT.format(flowFileDates[i]))
+                    .append("\",\"bad_date_standardized\":\"").append(standardize(flowFileDates[i])).append("\"}\n");
+            flowFile.assertContentEquals(expected.toString());
+        }, dates);
+    }
+
+    @Test
+    public void testAvroScaling() throws IOException {
+        final List<LocalDate[]> dates = generateDates();
+        final List<byte[]> inputs = new ArrayList<>();
+        for (LocalDate[] flowFileDates : dates) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<GenericRecord>(AVRO_SCHEMA))) {
+                writer.create(AVRO_SCHEMA, out);
+                for (int i = 0; i < flowFileDates.length; i++) {
+                    final GenericRecord record = new GenericData.Record(AVRO_SCHEMA);
+                    record.put("id", i);
+                    record.put("bad_date", INPUT.format(flowFileDates[i]));
+                    writer.append(record);
+                }
+            }
+            inputs.add(out.toByteArray());
+        }
+
+        assertScaling("avro", "AVRO", inputs, (flowFile, flowFileDates) -> {
+            final List<GenericRecord> records = new ArrayList<>();
+            try (InputStream in = new ByteArrayInputStream(flowFile.toByteArray());
+                    DataFileStream<GenericRecord> reader = new DataFileStream<>(in, new GenericDatumReader<GenericRecord>())) {
+                for (GenericRecord record : reader)
+                    records.add(record);
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+            assertEquals(flowFileDates.length, records.size());
+            for (int i = 0; i < flowFileDates.length; i++)
+                assertEquals(standardize(flowFileDates[i]), records.get(i).get("bad_date_standardized").toString());
+        }, dates);
+    }
+
+    private void assertScaling(String name, String flowFormat, List<byte[]> inputs, BiConsumer<MockFlowFile, LocalDate[]> verifier,
+            List<LocalDate[]> dates) throws IOException {
+        final Properties baseline = loadBaseline();
+        final double minEfficiency = Double.parseDouble(baseline.getProperty("min.efficiency", "0.5"));
+        final int processors = Runtime.getRuntime().availableProcessors();
+
+        // warm up the JIT so the single-thread run isn't penalized
+        for (int i = 0; i < 2; i++)
+            run(enqueue(flowFormat, inputs, 1), inputs.size());
+
+        double singleThread = 0;
+        for (int threads : THREAD_COUNTS) {
+            final TestRunner runner = enqueue(flowFormat, inputs, threads);
+            final double seconds = run(runner, inputs.size()) / 1e9;
+
+            runner.assertAllFlowFilesTransferred(StandardizeDateRelationships.REL_SUCCESS, inputs.size());
+            for (MockFlowFile flowFile : runner.getFlowFilesForRelationship(StandardizeDateRelationships.REL_SUCCESS))
+                verifier.accept(flowFile, dates.get(Integer.parseInt(flowFile.getAttribute("scaling.index"))));
+
+            final double recordsPerSec = inputs.size() * RECORDS_PER_FLOWFILE / seconds;
+            if (threads == 1)
+                singleThread = recordsPerSec;
+            final double efficiency = recordsPerSec / (singleThread * Math.min(threads, processors));
+            results.setProperty(name + "." + threads + ".records.per.sec", String.valueOf((long) recordsPerSec));
+            results.setProperty(name + "." + threads + ".efficiency", String.format("%.2f", efficiency));
+
+            assertTrue(String.format("%s with %d threads: scaling efficiency %.2f is below %.2f", name, threads, efficiency, minEfficiency),
+                efficiency >= minEfficiency);
+        }
+    }
+
+    private static TestRunner enqueue(String flowFormat, List<byte[]> inputs, int threads) {
+        final TestRunner runner = TestRunners.newTestRunner(new StandardizeDate());
+        runner.setProperty(StandardizeDateProperties.FLOW_FORMAT, flowFormat);
+        runner.setProperty(StandardizeDateProperties.INVALID_DATES, INVALID_DATES);
+        runner.setProperty(StandardizeDateProperties.TIMEZONE, TIMEZONE);
+        runner.setProperty(StandardizeDateProperties.BATCH_SIZE, "1");
+        runner.setThreadCount(threads);
+        for (int i = 0; i < inputs.size(); i++)
+            runner.enqueue(inputs.get(i), Collections.singletonMap("scaling.index", String.valueOf(i)));
+        return runner;
+    }
+
+    /** Runs one FlowFile per task, returning the elapsed nanoseconds. */
+    private static long run(TestRunner runner, int flowFiles) {
+        final long start = System.nanoTime();
+        runner.run(flowFiles);
+        final long elapsed = System.nanoTime() - start;
+        runner.assertQueueEmpty();
+        return elapsed;
+    }
+
+    private static List<LocalDate[]> generateDates() {
+        final Random random = new Random(1904);
+        final List<LocalDate[]> dates = new ArrayList<>();
+        for (int i = 0; i < FLOWFILES; i++) {
+            final LocalDate[] flowFileDates = new LocalDate[RECORDS_PER_FLOWFILE];
+            for (int j = 0; j < flowFileDates.length; j++)
+                flowFileDates[j] = LocalDate.of(2000 + random.nextInt(60), 1 + random.nextInt(12), 1 + random.nextInt(28));
+            dates.add(flowFileDates);
+        }
+        return dates;
+    }
+
+    private static String standardize(LocalDate date) {
+        return date.atStartOfDay(ZoneId.of(TIMEZONE)).withZoneSameInstant(ZoneOffset.UTC).format(STANDARD);
+    }
+
+    private static Properties loadBaseline() throws IOException {
+        final Properties baseline = new Properties();
+        final Path path = Paths.get(System.getProperty("scaling.baseline", "src/test/resources/scaling-baseline.properties"));
+        try (InputStream in = Files.newInputStream(path)) {
+            baseline.load(in);
+        }
+        return baseline;
+    }
+}
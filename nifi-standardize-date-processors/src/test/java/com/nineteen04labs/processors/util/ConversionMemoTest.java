@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.nineteen04labs.processors.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class ConversionMemoTest {
+
+    private final DateConverter converter = ManipulateDate.getConverter("yyyyMMdd", "America/Chicago");
+
+    @Test
+    public void testRepeatedValues() {
+        final ConversionMemo memo = new ConversionMemo(100);
+        for (int i = 0; i < 3 * ConversionMemo.WINDOW; i++) {
+            final String value = String.format("2018%02d%02d", 1 + i % 12, 1 + i % 28);
+            assertEquals(converter.standardize(value), memo.standardize(converter, value));
+        }
+
+        assertTrue(memo.isEnabled());
+        assertTrue(memo.getHitRate() > 0.9);
+    }
+
+    @Test
+    public void testDisablesOnLowHitRate() {
+        final ConversionMemo memo = new ConversionMemo(100);
+        for (int i = 0; i < 2 * ConversionMemo.WINDOW; i++) {
+            final String value = String.format("%04d%02d%02d", 1900 + i / 336, 1 + (i / 28) % 12, 1 + i % 28);
+            assertEquals(converter.standardize(value), memo.standardize(converter, value));
+        }
+
+        assertFalse(memo.isEnabled());
+        assertEquals(ConversionMemo.WINDOW, memo.getMissCount());
+    }
+
+    @Test
+    public void testReenablesOnRepeatedValues() {
+        final ConversionMemo memo = new ConversionMemo(100);
+        for (int i = 0; i < 2 * ConversionMemo.WINDOW; i++)
+            memo.standardize(converter, String.format("%04d%02d%02d", 1900 + i / 336, 1 + (i / 28) % 12, 1 + i % 28));
+        assertFalse(memo.isEnabled());
+
+        for (int i = 0; i < (ConversionMemo.RETRY_WINDOWS - 1) * ConversionMemo.WINDOW; i++)
+            memo.standardize(converter, String.format("2018%02d%02d", 1 + i % 12, 1 + i % 28));
+        assertTrue(memo.isEnabled());
+        assertEquals(ConversionMemo.WINDOW - 84, memo.getHitCount());
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.nineteen04labs.processors.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class FixedWidthDateParserTest {
+
+    private static final String[] PATTERNS = {
+        "MM/dd/yy", "yyyy-MM-dd", "yyyyMMdd", "MM/dd/yyyy HH:mm:ss", "yyyy-MM-dd'T'HH:mm:ss.SSS",
+        "dd.MM.yyyy HH:mm", "yyyyMMddHH", "yyyy-MM-dd HH:mm:ss.SSSSSS"
+    };
+
+    private static final String[] TIMEZONES = {"America/Chicago", "UTC", "CST", "Asia/Kolkata", "Europe/London", "Australia/Lord_Howe"};
+
+    @Test
+    public void testCompile() {
+        for (String pattern : PATTERNS)
+            assertNotNull(pattern, FixedWidthDateParser.compile(pattern));
+
+        assertNull(FixedWidthDateParser.compile("M/d/yy"));
+        assertNull(FixedWidthDateParser.compile("MMM dd yyyy"));
+        assertNull(FixedWidthDateParser.compile("yyyy-MM-dd hh:mm a"));
+        assertNull(FixedWidthDateParser.compile("yyyy-MM-dd mm"));
+        assertNull(FixedWidthDateParser.compile("yyyy-MM-dd[ HH:mm]"));
+        assertNull(FixedWidthDateParser.compile("yyyy-MM"));
+    }
+
+    @Test
+    public void testDaylightSavingTransitions() {
+        assertMatchesReference("03/10/2019 02:30:00", "MM/dd/yyyy HH:mm:ss", "America/Chicago");
+        assertMatchesReference("11/03/2019 01:30:00", "MM/dd/yyyy HH:mm:ss", "America/Chicago");
+        assertMatchesReference("03/31/2019 01:30:00", "MM/dd/yyyy HH:mm:ss", "Europe/London");
+        assertMatchesReference("10/27/2019 01:30:00", "MM/dd/yyyy HH:mm:ss", "Europe/London");
+    }
+
+    @Test
+    public void testRandomizedAgainstDateTimeFormatter() {
+        final Random random = new Random(1904);
+        for (String pattern : PATTERNS) {
+            final DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern);
+            for (String timezone : TIMEZONES) {
+                for (int i = 0; i < 2000; i++) {
+                    final LocalDateTime value = LocalDateTime.of(1950 + random.nextInt(100), 1 + random.nextInt(12), 1 + random.nextInt(28),
+                        random.nextInt(24), random.nextInt(60), random.nextInt(60), random.nextInt(1000000000));
+                    final String text = formatter.format(value);
+                    assertMatchesReference(text, pattern, timezone);
+                    assertMatchesReference(mutate(text, random), pattern, timezone);
+                }
+            }
+        }
+    }
+
+    private static String mutate(String text, Random random) {
+        final char[] chars = text.toCharArray();
+        final int pos = random.nextInt(chars.length);
+        switch (random.nextInt(4)) {
+            case 0:
+                chars[pos] = (char) ('0' + random.nextInt(10));
+                return new String(chars);
+            case 1:
+                chars[pos] = "9x/ -:+".charAt(random.nextInt(7));
+                return new String(chars);
+            case 2:
+                return text.substring(0, pos) + text.substring(pos + 1);
+            default:
+                return text.substring(0, pos) + random.nextInt(10) + text.substring(pos);
+        }
+    }
+
+    private static void assertMatchesReference(String text, String pattern, String timezone) {
+        String expected;
+        try {
+            expected = reference(text, pattern, timezone);
+        } catch (RuntimeException e) {
+            expected = "error";
+        }
+
+        String actual;
+        try {
+            actual = new DateConverter(pattern, timezone).standardize(text);
+        } catch (RuntimeException e) {
+            actual = "error";
+        }
+
+        assertEquals(text + " / " + pattern + " / " + timezone, expected, actual);
+    }
+
+    /** The original, formatter-only implementation of ManipulateDate.standardize. */
+    private static String reference(String dateTime, String format, String timezone) {
+        DateTimeFormatter dtFormat = DateTimeFormatter.ofPattern(format);
+
+        LocalDateTime localDT = null;
+        try {
+            localDT = LocalDateTime.parse(dateTime, dtFormat);
+        } catch (DateTimeParseException e) {
+            localDT = LocalDate.parse(dateTime, dtFormat).atStartOfDay();
+        }
+
+        ZoneId localZone = null;
+        try {
+            localZone = ZoneId.of(ZoneId.SHORT_IDS.get(timezone.toUpperCase()));
+        } catch (NullPointerException e) {
+            localZone = ZoneId.of(timezone);
+        }
+
+        ZonedDateTime localZonedDT = ZonedDateTime.of(localDT, localZone);
+        ZonedDateTime standardizedDT = localZonedDT.withZoneSameInstant(ZoneOffset.UTC);
+
+        return standardizedDT.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS"));
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.nineteen04labs.processors.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import org.apache.avro.Schema;
+import org.apache.avro.file.DataFileStream;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+public class FormatStreamTest {
+
+    @Test
+    public void testAvroJsonRoundTrip() throws IOException {
+        final byte[] avro = Files.readAllBytes(Paths.get("src/test/resources/unprocessed.avro"));
+        final Schema schema = FormatStream.getEmbeddedSchema(new ByteArrayInputStream(avro));
+
+        final ByteArrayOutputStream json = new ByteArrayOutputStream();
+        try (InputStream in = FormatStream.avroToJson(new ByteArrayInputStream(avro), schema)) {
+            IOUtils.copy(in, json);
+        }
+
+        final ByteArrayOutputStream roundTrip = FormatStream.jsonToAvro(json, schema);
+
+        int count = 0;
+        try (DataFileStream<GenericRecord> reader = new DataFileStream<>(new ByteArrayInputStream(roundTrip.toByteArray()), new GenericDatumReader<GenericRecord>())) {
+            for (GenericRecord record : reader) {
+                assertEquals(schema, record.getSchema());
+                count++;
+            }
+        }
+        assertEquals(2, count);
+    }
+
+    @Test(expected = IOException.class)
+    public void testJsonToAvroFailure() throws IOException {
+        final Schema schema = FormatStream.getEmbeddedSchema(Files.newInputStream(Paths.get("src/test/resources/unprocessed.avro")));
+        final ByteArrayOutputStream json = new ByteArrayOutputStream();
+        json.write("{\"status\":".getBytes());
+
+        FormatStream.jsonToAvro(json, schema);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.nineteen04labs.processors.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class ManipulateDateTest {
+
+    @Test
+    public void testStandardize() {
+        assertEquals("2018-10-28 05:00:00.000", ManipulateDate.standardize("10/28/18", "MM/dd/yy", "America/Chicago"));
+        assertEquals("2005-11-11 06:00:00.000", ManipulateDate.standardize("11/11/05", "MM/dd/yy", "CST"));
+        assertEquals("2019-02-01 18:30:15.000", ManipulateDate.standardize("02/01/2019 12:30:15", "MM/dd/yyyy HH:mm:ss", "America/Chicago"));
+    }
+
+    @Test
+    public void testMultipleFormats() {
+        final DateConverter converter = ManipulateDate.getConverter(Arrays.asList("MM/dd/yy", "yyyy-MM-dd", "dd MMM yyyy HH:mm"), "America/Chicago");
+
+        assertEquals("2018-10-28 05:00:00.000", converter.standardize("10/28/18"));
+        assertEquals("2018-10-28 05:00:00.000", converter.standardize("2018-10-28"));
+        assertEquals("2018-10-28 17:30:00.000", converter.standardize("28 Oct 2018 12:30"));
+        assertEquals("MM/dd/yy | yyyy-MM-dd | dd MMM yyyy HH:mm", converter.getFormat());
+    }
+
+    @Test
+    public void testStandardizeIntoBuffer() {
+        final String pattern = "uuuuu-MM-dd HH:mm:ss.SSSSSS";
+        final DateTimeFormatter input = DateTimeFormatter.ofPattern(pattern);
+        final DateTimeFormatter standard = DateTimeFormatter.ofPattern(DateConverter.STANDARD_PATTERN);
+        final DateConverter converter = new DateConverter(pattern, "UTC");
+        final char[] buffer = new char[DateConverter.MAX_STANDARD_LENGTH];
+        final Random random = new Random(1904);
+
+        for (int i = 0; i < 20000; i++) {
+            final LocalDateTime value = LocalDateTime.of(-200 + random.nextInt(10400), 1 + random.nextInt(12), 1 + random.nextInt(28),
+                random.nextInt(24), random.nextInt(60), random.nextInt(60), random.nextInt(1000000000));
+            final String text = input.format(value);
+            final int length = converter.standardize(text, buffer);
+            assertEquals(text, standard.format(value), new String(buffer, 0, length));
+        }
+    }
+
+    @Test(expected = DateTimeParseException.class)
+    public void testNoFormatMatches() {
+        ManipulateDate.getConverter(Arrays.asList("MM/dd/yy", "yyyy-MM-dd"), "America/Chicago").standardize("28.10.2018");
+    }
+
+    @Test
+    public void testAdaptiveFormatOrder() {
+        final DateConverter converter = new DateConverter(Arrays.asList("MM/dd/yy", "yyyy-MM-dd"), "America/Chicago");
+        assertEquals(Arrays.asList("MM/dd/yy", "yyyy-MM-dd"), converter.getFormatOrder());
+
+        for (int i = 0; i < 10; i++)
+            converter.standardize("2018-10-28");
+        converter.reorder();
+        assertEquals(Arrays.asList("yyyy-MM-dd", "MM/dd/yy"), converter.getFormatOrder());
+        assertEquals("2018-10-28 05:00:00.000", converter.standardize("10/28/18"));
+    }
+
+    @Test
+    public void testConverterCache() {
+        final long misses = ManipulateDate.getConverterCacheMisses();
+        final DateConverter converter = ManipulateDate.getConverter("yyyyMMdd", "America/New_York");
+        assertEquals(misses + 1, ManipulateDate.getConverterCacheMisses());
+
+        final long hits = ManipulateDate.getConverterCacheHits();
+        assertSame(converter, ManipulateDate.getConverter("yyyyMMdd", "America/New_York"));
+        assertTrue(ManipulateDate.getConverterCacheHits() > hits);
+    }
+
+    @Test
+    public void testBoundedCacheEviction() {
+        final BoundedCache<Integer, String> cache = new BoundedCache<>(4);
+        for (int i = 0; i < 100; i++)
+            cache.get(i, String::valueOf);
+
+        assertTrue(cache.size() <= 4);
+        assertEquals(100, cache.getMissCount());
+        assertEquals("99", cache.get(99, String::valueOf));
+        assertEquals(1, cache.getHitCount());
+    }
+}
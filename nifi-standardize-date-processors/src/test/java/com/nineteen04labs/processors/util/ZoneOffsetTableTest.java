@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.nineteen04labs.processors.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class ZoneOffsetTableTest {
+
+    private static final String[] ZONES = {"America/Chicago", "Europe/London", "Australia/Lord_Howe", "America/Sao_Paulo", "Asia/Kolkata", "Pacific/Apia"};
+
+    @Test
+    public void testAroundEveryTransition() {
+        for (String zone : ZONES) {
+            final ZoneRules rules = ZoneId.of(zone).getRules();
+            final ZoneOffsetTable table = new ZoneOffsetTable(rules);
+            assertTrue(zone, table.size() > 0);
+
+            for (ZoneOffsetTransition t : rules.getTransitions()) {
+                final long before = t.getDateTimeBefore().toEpochSecond(ZoneOffset.UTC);
+                final long after = t.getDateTimeAfter().toEpochSecond(ZoneOffset.UTC);
+                for (long local : new long[] {before - 1, before, before + 1, after - 1, after, after + 1, (before + after) / 2})
+                    assertMatchesZonedDateTime(table, zone, local);
+            }
+        }
+    }
+
+    @Test
+    public void testRandomized() {
+        final Random random = new Random(1904);
+        final long min = LocalDateTime.of(ZoneOffsetTable.MIN_YEAR, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+        final long max = LocalDateTime.of(ZoneOffsetTable.MAX_YEAR, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+        for (String zone : ZONES) {
+            final ZoneOffsetTable table = new ZoneOffsetTable(ZoneId.of(zone).getRules());
+            for (int i = 0; i < 20000; i++)
+                assertMatchesZonedDateTime(table, zone, min + (long) (random.nextDouble() * (max - min)));
+        }
+    }
+
+    @Test
+    public void testOutsideTable() {
+        final ZoneOffsetTable table = new ZoneOffsetTable(ZoneId.of("America/Chicago").getRules());
+
+        assertEquals(ZoneOffsetTable.NO_MATCH, table.toUtcEpochSecond(LocalDateTime.of(1899, 12, 31, 23, 59, 59).toEpochSecond(ZoneOffset.UTC)));
+        assertEquals(ZoneOffsetTable.NO_MATCH, table.toUtcEpochSecond(LocalDateTime.of(2100, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC)));
+        assertEquals("2150-07-04 05:00:00.000", new DateConverter("yyyy-MM-dd", "America/Chicago").standardize("2150-07-04"));
+    }
+
+    private static void assertMatchesZonedDateTime(ZoneOffsetTable table, String zone, long localEpochSecond) {
+        final LocalDateTime local = LocalDateTime.ofEpochSecond(localEpochSecond, 0, ZoneOffset.UTC);
+        final long actual = table.toUtcEpochSecond(localEpochSecond);
+        if (actual != ZoneOffsetTable.NO_MATCH)
+            assertEquals(zone + " " + local, ZonedDateTime.of(local, ZoneId.of(zone)).toEpochSecond(), actual);
+    }
+}